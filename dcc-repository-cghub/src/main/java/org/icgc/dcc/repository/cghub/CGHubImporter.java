@@ -42,24 +42,24 @@ public class CGHubImporter extends GenericRepositorySourceFileImporter {
 
   @Override
   protected Iterable<RepositoryFile> readFiles() {
-    log.info("Reading details...");
-    val details = readDetails();
-    log.info("Finished reading details");
+    log.info("Streaming results...");
+    val results = readResults();
 
-    log.info("Processing details...");
-    val files = processDetails(details);
-    log.info("Finished processing details");
+    log.info("Processing results...");
+    val files = processResults(results);
+    log.info("Finished processing results");
 
     return files;
   }
 
-  private Iterable<ObjectNode> readDetails() {
-    return new CGHubAnalysisDetailReader().readDetails();
+  private Iterable<ObjectNode> readResults() {
+    // Lazy:
+    return new CGHubAnalysisDetailReader(context.getReadConcurrency()).readResults();
   }
 
-  private Iterable<RepositoryFile> processDetails(Iterable<ObjectNode> details) {
+  private Iterable<RepositoryFile> processResults(Iterable<ObjectNode> results) {
     val processor = new CGHubFileProcessor(context);
-    return processor.processDetails(details);
+    return processor.processResults(results);
   }
 
 }
@@ -77,9 +77,15 @@ public class CGHubFileProcessor extends RepositoryFileProcessor {
   }
 
   public Iterable<RepositoryFile> processDetails(@NonNull Iterable<ObjectNode> details) {
-    log.info("Procesing and filtering details...");
-    val analysisFiles = stream(details)
-        .flatMap(detail -> stream(getResults(detail)))
+    return processResults(() -> stream(details).flatMap(detail -> stream(getResults(detail))).iterator());
+  }
+
+  /**
+   * Processes analysis results as they are produced, e.g. by {@code CGHubAnalysisDetailReader.readResults()}.
+   */
+  public Iterable<RepositoryFile> processResults(@NonNull Iterable<? extends JsonNode> results) {
+    log.info("Procesing and filtering results...");
+    val analysisFiles = stream(results)
         .flatMap(result -> (Stream<RepositoryFile>) stream(processResult(result)))
         .filter(hasDonorId()) // Filter out non-ICGC donors
         .collect(toImmutableList());
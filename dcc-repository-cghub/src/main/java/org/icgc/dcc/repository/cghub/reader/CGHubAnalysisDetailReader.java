@@ -17,22 +17,31 @@
  */
 package org.icgc.dcc.repository.cghub.reader;
 
+import static com.fasterxml.jackson.core.JsonToken.FIELD_NAME;
+import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
 import static com.google.common.base.Stopwatch.createStarted;
 import static com.google.common.collect.Iterables.transform;
 import static com.google.common.net.HttpHeaders.ACCEPT;
 import static org.icgc.dcc.common.core.json.Jackson.DEFAULT;
+import static org.icgc.dcc.repository.core.http.RepositoryHttpClient.getClient;
 import static org.icgc.dcc.repository.core.model.RepositoryProjects.getProjectDiseaseCodes;
+import static org.icgc.dcc.repository.core.model.RepositorySource.CGHUB;
+import static org.icgc.dcc.repository.core.util.ConcurrentIterators.produce;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Map;
+import java.util.function.Consumer;
+
+import org.icgc.dcc.repository.core.http.RepositoryHttpClient;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 import lombok.Cleanup;
@@ -50,11 +59,89 @@ public class CGHubAnalysisDetailReader {
   public static final String CGHUB_BASE_URL = "https://cghub.ucsc.edu";
   public static final String CGHUB_ANALYSIS_DETAIL_API_URL = CGHUB_BASE_URL + "/cghub/metadata/analysisDetail";
 
+  private static final int PENDING_RESULTS = 1000;
+
+  /**
+   * Configuration.
+   */
+  private final int concurrency;
+
+  /**
+   * Dependencies.
+   */
+  private final RepositoryHttpClient httpClient = getClient(CGHUB.getId());
+
+  public CGHubAnalysisDetailReader() {
+    this(1);
+  }
+
+  public CGHubAnalysisDetailReader(int concurrency) {
+    this.concurrency = Math.max(concurrency, 1);
+  }
+
   public Iterable<ObjectNode> readDetails() {
     // Lazy:
     return transform(getProjectDiseaseCodes(), diseaseCode -> readDiseaseCodeDetails(diseaseCode));
   }
 
+  /**
+   * @return the {@code result_set.results} of all disease codes, parsed one at a time as each response streams in
+   * rather than as whole responses. Up to {@code concurrency} disease codes are fetched at once, so results of different
+   * disease codes are interleaved.
+   */
+  public Iterable<ObjectNode> readResults() {
+    return () -> produce("cghub-detail", ImmutableList.copyOf(getProjectDiseaseCodes()), concurrency, PENDING_RESULTS,
+        this::readDiseaseCodeResults);
+  }
+
+  @SneakyThrows
+  private void readDiseaseCodeResults(String diseaseCode, Consumer<ObjectNode> callback) {
+    val watch = createStarted();
+    val url = getDiseaseCodeUrl(diseaseCode);
+
+    log.info("Streaming analysis results for disease code '{}' from '{}'... ", diseaseCode, url);
+    @Cleanup
+    val inputStream = openInputStream(url);
+    val count = readResults(inputStream, callback);
+    log.info("Finished streaming {} analysis results for disease code '{}' in {} ", count, diseaseCode, watch);
+  }
+
+  /**
+   * Walks the response token by token, only materializing one element of {@code result_set.results} at a time.
+   */
+  static int readResults(InputStream inputStream, Consumer<ObjectNode> callback) throws IOException {
+    @Cleanup
+    val parser = DEFAULT.getFactory().createParser(inputStream);
+    if (parser.nextToken() != START_OBJECT) {
+      return 0;
+    }
+
+    int count = 0;
+    while (parser.nextToken() == FIELD_NAME) {
+      val fieldName = parser.getCurrentName();
+      if (parser.nextToken() != START_OBJECT || !fieldName.equals("result_set")) {
+        parser.skipChildren();
+        continue;
+      }
+
+      while (parser.nextToken() == FIELD_NAME) {
+        val resultSetFieldName = parser.getCurrentName();
+        if (parser.nextToken() != START_ARRAY || !resultSetFieldName.equals("results")) {
+          parser.skipChildren();
+          continue;
+        }
+
+        while (parser.nextToken() == START_OBJECT) {
+          ObjectNode result = DEFAULT.readTree(parser);
+          callback.accept(result);
+          count++;
+        }
+      }
+    }
+
+    return count;
+  }
+
   @SneakyThrows
   private ObjectNode readDiseaseCodeDetails(String diseaseCode) {
     val watch = createStarted();
@@ -86,11 +173,8 @@ public class CGHubAnalysisDetailReader {
     return new URL(path + "?" + Joiner.on('&').withKeyValueSeparator("=").join(params));
   }
 
-  private static InputStream openInputStream(URL url) throws IOException {
-    val connection = (HttpURLConnection) url.openConnection();
-    connection.setRequestProperty(ACCEPT, "application/json");
-
-    return connection.getInputStream();
+  private InputStream openInputStream(URL url) throws IOException {
+    return httpClient.open(url, ImmutableMap.of(ACCEPT, "application/json"));
   }
 
 }
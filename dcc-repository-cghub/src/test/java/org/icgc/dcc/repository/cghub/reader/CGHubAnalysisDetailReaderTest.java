@@ -17,18 +17,54 @@
  */
 package org.icgc.dcc.repository.cghub.reader;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 import lombok.val;
 
-@Ignore("For DCC-3950")
 public class CGHubAnalysisDetailReaderTest {
 
+  @Test
+  public void testReadResults() throws IOException {
+    // Siblings of every shape before and after the results, at both levels
+    val json = "{"
+        + "\"query\": {\"study\": \"phs000178\", \"states\": [\"live\"]},"
+        + "\"result_set\": {"
+        + "  \"hits\": 2,"
+        + "  \"facets\": {\"results\": [{\"analysis_id\": \"facet\"}]},"
+        + "  \"results\": ["
+        + "    {\"analysis_id\": \"a1\", \"files\": [{\"filename\": \"f1.bam\"}]},"
+        + "    {\"analysis_id\": \"a2\", \"files\": []}"
+        + "  ],"
+        + "  \"next\": null,"
+        + "  \"pages\": [1, [2, 3]]"
+        + "},"
+        + "\"results\": [{\"analysis_id\": \"top\"}],"
+        + "\"elapsed\": 1.5"
+        + "}";
+
+    val results = new ArrayList<ObjectNode>();
+    val count = CGHubAnalysisDetailReader.readResults(new ByteArrayInputStream(json.getBytes(UTF_8)), results::add);
+
+    assertThat(count).isEqualTo(2);
+    assertThat(results).extracting(result -> result.get("analysis_id").asText()).containsExactly("a1", "a2");
+    assertThat(results.get(0).path("files").get(0).get("filename").asText()).isEqualTo("f1.bam");
+  }
+
   /**
    * See https://jira.oicr.on.ca/browse/DCC-3950
    */
   @Test
+  @Ignore("For DCC-3950")
   public void testRead() {
     val details = new CGHubAnalysisDetailReader().readDetails();
 
@@ -21,9 +21,11 @@ import java.net.URL;
 
 import org.icgc.dcc.common.core.mail.Mailer;
 import org.icgc.dcc.common.core.report.BufferedReport;
+import org.icgc.dcc.repository.client.config.ClientProperties.HttpProperties;
 import org.icgc.dcc.repository.client.core.RepositoryImporter;
 import org.icgc.dcc.repository.core.RepositoryFileContext;
 import org.icgc.dcc.repository.core.RepositoryFileContextBuilder;
+import org.icgc.dcc.repository.core.http.RepositoryHttpClient;
 import org.icgc.dcc.repository.core.util.DCCDonorIdResolver;
 import org.icgc.dcc.repository.pcawg.core.PCAWGDonorIdResolver;
 import org.springframework.context.annotation.Bean;
@@ -55,17 +57,35 @@ public class ClientConfig {
   @Bean
   @DependsOn("clientBanner")
   public RepositoryFileContext context(ClientProperties properties) {
+    // Shared by the readers of every source, so applied once before anything reads
+    configureHttpClients(properties.getHttp());
+
     val context = RepositoryFileContextBuilder.builder();
 
     // Inputs
     context
-        .sources(properties.getRepository().getSources());
+        .sources(properties.getRepository().getSources())
+        .importConcurrency(properties.getRepository().getImportConcurrency())
+        .readConcurrency(properties.getRepository().getReadConcurrency());
+
+    // Writes
+    context
+        .writeBatchSize(properties.getRepository().getWriteBatchSize())
+        .writeConcurrency(properties.getRepository().getWriteConcurrency())
+        .stagedWrites(properties.getRepository().isStagedWrites());
+
+    // Indexing
+    context
+        .indexConcurrency(properties.getRepository().getIndexConcurrency())
+        .archiveCodec(properties.getRepository().getArchiveCodec().name());
 
     // IDs
     context
         .idUrl(properties.getId().getServiceUrl())
         .authToken(properties.getId().getAuthToken())
-        .realIds(properties.getId().isEnabled());
+        .realIds(properties.getId().isEnabled())
+        .idConcurrency(properties.getId().getConcurrency())
+        .idCacheFile(properties.getId().getCacheFile());
 
     // Reference
     context
@@ -79,7 +99,8 @@ public class ClientConfig {
         .awsUrl(url(properties.getImports().getAwsUrl()))
         .awsToken(properties.getImports().getAwsToken())
         .azureUrl(url(properties.getImports().getAzureUrl()))
-        .azureToken(properties.getImports().getAzureToken());
+        .azureToken(properties.getImports().getAzureToken())
+        .tcgaArchiveCacheFile(properties.getImports().getTcgaArchiveCacheFile());
     // Outputs
     context
         .repoMongoUri(properties.getRepository().getMongoUri())
@@ -95,6 +116,11 @@ public class ClientConfig {
     return context.build();
   }
 
+  private static void configureHttpClients(HttpProperties http) {
+    RepositoryHttpClient.configure(http.getCacheDir(), http.getMaxRequests(), http.getSourceMaxRequests(),
+        http.getCacheMaxAgeDays());
+  }
+
   @SneakyThrows
   private URL url(String path) {
     return new URL(path);
@@ -17,7 +17,9 @@
  */
 package org.icgc.dcc.repository.client.config;
 
+import java.io.File;
 import java.net.URI;
+import java.util.Map;
 import java.util.Set;
 
 import javax.validation.Valid;
@@ -26,10 +28,14 @@ import org.hibernate.validator.constraints.URL;
 import org.icgc.dcc.repository.client.core.RepositoryImporter;
 import org.icgc.dcc.repository.client.core.RepositoryImporter.Step;
 import org.icgc.dcc.repository.client.util.MongoURI;
+import org.icgc.dcc.repository.core.http.RepositoryHttpClient;
 import org.icgc.dcc.repository.core.model.RepositorySource;
+import org.icgc.dcc.repository.core.writer.RepositoryFileWriter;
+import org.icgc.dcc.repository.index.util.ArchiveCodec;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.mongodb.MongoClientURI;
 
@@ -46,6 +52,7 @@ public class ClientProperties {
   ImportsProperties imports;
   @Valid
   IdProperties id;
+  HttpProperties http = new HttpProperties();
   MailProperties mail;
 
   @Data
@@ -53,6 +60,13 @@ public class ClientProperties {
 
     Set<RepositoryImporter.Step> steps = Sets.newHashSet();
     Set<RepositorySource> sources = Sets.newHashSet();
+    int importConcurrency = 1;
+    int readConcurrency = 1;
+    int writeBatchSize = RepositoryFileWriter.DEFAULT_BATCH_SIZE;
+    int writeConcurrency = RepositoryFileWriter.DEFAULT_WRITE_CONCURRENCY;
+    boolean stagedWrites;
+    int indexConcurrency = 1;
+    ArchiveCodec archiveCodec = ArchiveCodec.GZIP; // Bound as an enum so that typos fail at startup
 
     @MongoURI
     MongoClientURI mongoUri;
@@ -85,6 +99,7 @@ public class ClientProperties {
     String azureToken;
     String songPDCUrl;
     String songPDCToken;
+    File tcgaArchiveCacheFile;
 
   }
 
@@ -95,6 +110,18 @@ public class ClientProperties {
     String serviceUrl;
     String authToken;
     boolean enabled;
+    int concurrency = 1;
+    File cacheFile;
+
+  }
+
+  @Data
+  public static class HttpProperties {
+
+    File cacheDir = RepositoryHttpClient.DEFAULT_CACHE_DIR;
+    int cacheMaxAgeDays = RepositoryHttpClient.DEFAULT_CACHE_MAX_AGE_DAYS;
+    int maxRequests = RepositoryHttpClient.DEFAULT_MAX_REQUESTS;
+    Map<String, Integer> sourceMaxRequests = Maps.newHashMap(); // Keyed by source name, e.g. TCGA
 
   }
 
@@ -17,16 +17,26 @@
  */
 package org.icgc.dcc.repository.client.core;
 
+import static com.google.common.collect.Iterators.mergeSorted;
+import static com.google.common.collect.Iterators.peekingIterator;
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsFirst;
 import static org.icgc.dcc.common.core.util.stream.Collectors.toImmutableList;
 
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.Set;
 
 import org.icgc.dcc.repository.core.RepositoryFileContext;
 import org.icgc.dcc.repository.core.model.RepositoryFile;
 import org.icgc.dcc.repository.core.reader.RepositorySourceFileReader;
 
-import com.google.common.collect.HashMultimap;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.PeekingIterator;
+import com.google.common.collect.Sets;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -37,6 +47,12 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class RepositoryFileCollector {
 
+  /**
+   * Constants.
+   */
+  private static final Comparator<RepositoryFile> ID_ORDER =
+      comparing(RepositoryFile::getId, nullsFirst(naturalOrder())); // Mongo sorts missing values first
+
   /**
    * Dependencies.
    */
@@ -44,24 +60,51 @@ public class RepositoryFileCollector {
   private final RepositoryFileContext context;
 
   public Iterable<Set<RepositoryFile>> collectFiles() {
-    log.info("Collecting files...");
+    log.info("Lazily collecting files...");
     val readers = createReaders();
-    val files = readFiles(readers);
 
-    return iterable(files);
+    // Each iteration opens a fresh set of cursors so that the result may be traversed more than once
+    return () -> mergeFiles(readFiles(readers));
   }
 
-  private HashMultimap<String, RepositoryFile> readFiles(Iterable<RepositorySourceFileReader> readers) {
-    // TODO: This isn't lazy and should be doing an N-way merge instead to avoid bringing everything into memory at
-    // once.
-    val files = HashMultimap.<String, RepositoryFile> create();
-    for (val reader : readers) {
-      for (val file : reader.read()) {
-        files.put(file.getId(), file);
+  /**
+   * Performs an N-way merge of the supplied {@code id} ordered source files, grouping files that share the same
+   * {@code id}. Only the head of each source is held in memory at any one time.
+   */
+  static Iterator<Set<RepositoryFile>> mergeFiles(Iterable<? extends Iterator<RepositoryFile>> sourceFiles) {
+    val files = peekingIterator(mergeSorted(sourceFiles, ID_ORDER));
+
+    return new AbstractIterator<Set<RepositoryFile>>() {
+
+      @Override
+      protected Set<RepositoryFile> computeNext() {
+        if (!files.hasNext()) {
+          return endOfData();
+        }
+
+        return nextGroup(files);
       }
+
+    };
+  }
+
+  private static Set<RepositoryFile> nextGroup(PeekingIterator<RepositoryFile> files) {
+    val id = files.peek().getId();
+    val group = Sets.<RepositoryFile> newHashSet();
+    while (files.hasNext() && Objects.equals(id, files.peek().getId())) {
+      group.add(files.next());
+    }
+
+    return group;
+  }
+
+  private static Iterable<Iterator<RepositoryFile>> readFiles(Iterable<RepositorySourceFileReader> readers) {
+    val sourceFiles = ImmutableList.<Iterator<RepositoryFile>> builder();
+    for (val reader : readers) {
+      sourceFiles.add(reader.readOrderedById().iterator());
     }
 
-    return files;
+    return sourceFiles.build();
   }
 
   private Iterable<RepositorySourceFileReader> createReaders() {
@@ -71,29 +114,4 @@ public class RepositoryFileCollector {
         .collect(toImmutableList());
   }
 
-  private Iterable<Set<RepositoryFile>> iterable(HashMultimap<String, RepositoryFile> files) {
-    return new Iterable<Set<RepositoryFile>>() {
-
-      @Override
-      public Iterator<Set<RepositoryFile>> iterator() {
-
-        Iterator<String> delegate = files.keySet().iterator();
-
-        return new Iterator<Set<RepositoryFile>>() {
-
-          @Override
-          public boolean hasNext() {
-            return delegate.hasNext();
-          }
-
-          @Override
-          public Set<RepositoryFile> next() {
-            return files.get(delegate.next());
-          }
-
-        };
-      }
-    };
-  }
-
 }
@@ -20,9 +20,14 @@ package org.icgc.dcc.repository.client.core;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Stopwatch.createStarted;
 import static com.google.common.base.Strings.repeat;
+import static org.icgc.dcc.repository.core.model.RepositoryCollection.FILE;
+import static org.icgc.dcc.common.core.util.stream.Collectors.toImmutableList;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.icgc.dcc.common.core.mail.Mailer;
 import org.icgc.dcc.common.core.report.ReportEmail;
@@ -34,10 +39,12 @@ import org.icgc.dcc.repository.collab.SONGPDCImporter;
 import org.icgc.dcc.repository.core.RepositoryFileContext;
 import org.icgc.dcc.repository.core.RepositorySourceFileImporter;
 import org.icgc.dcc.repository.core.model.RepositoryFile;
+import org.icgc.dcc.repository.core.model.RepositorySource;
 import org.icgc.dcc.repository.core.writer.RepositoryFileWriter;
 import org.icgc.dcc.repository.ega.pcawg.EGAPCAWGImporter;
 import org.icgc.dcc.repository.gdc.GDCImporter;
 import org.icgc.dcc.repository.index.core.RepositoryFileIndexer;
+import org.icgc.dcc.repository.index.util.ArchiveCodec;
 import org.icgc.dcc.repository.pcawg.PCAWGImporter;
 import org.icgc.dcc.repository.pdc.PDCImporter;
 import org.icgc.dcc.repository.tcga.TCGAImporter;
@@ -46,6 +53,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 
 import lombok.Cleanup;
 import lombok.Getter;
@@ -104,6 +112,9 @@ public class RepositoryImporter {
   public void execute(@NonNull Set<Step> steps) {
     log.info("Running steps {} using sources {}", steps, context.getSources());
 
+    // Resolve up front so that a misconfigured codec fails before importing rather than at the index step
+    val archiveCodec = ArchiveCodec.valueOf(context.getArchiveCodec());
+
     int stepNumber = 1;
     val stepCount = steps.size();
     val watch = createStarted();
@@ -152,7 +163,7 @@ public class RepositoryImporter {
       } else {
         // Index
         logStep(stepNumber++, stepCount, "Indexing files");
-        indexFiles();
+        indexFiles(archiveCodec);
       }
     } catch (Exception e) {
       reportException("Unknown exception processing", e);
@@ -165,31 +176,82 @@ public class RepositoryImporter {
   }
 
   private void writeSourceFiles() {
-    val importers = createImporters(context);
+    val importers = createImporters(context).stream()
+        .filter(importer -> context.isSourceActive(importer.getSource()))
+        .collect(toImmutableList());
+
+    val concurrency = context.getImportConcurrency();
+    if (concurrency > 1) {
+      writeSourceFilesConcurrently(importers, concurrency);
+    } else {
+      writeSourceFilesSequentially(importers);
+    }
+  }
 
-    int sourceNumber = 1;
-    val sourceCount = context.getSources().size();
+  private void writeSourceFilesSequentially(List<RepositorySourceFileImporter> importers) {
+    val sourceNumber = new AtomicInteger(1);
     for (val importer : importers) {
-      val active = context.isSourceActive(importer.getSource());
-      if (active) {
-        try {
-          log.info(repeat("-", 80));
-          log.info("[{}/{}] Import: {}", sourceNumber++, sourceCount, importer.getSource());
-          log.info(repeat("-", 80));
-
-          // Perform import of source
-          importer.execute();
-        } catch (Exception e) {
-          reportException(String.format("Error processing '%s': %s", importer.getSource(), e.getMessage()), e);
-        }
+      writeSourceFiles(importer, sourceNumber);
+    }
+  }
+
+  @SneakyThrows
+  private void writeSourceFilesConcurrently(List<RepositorySourceFileImporter> importers, int concurrency) {
+    log.info("Importing sources using {} threads", concurrency);
+    val executor = Executors.newFixedThreadPool(concurrency);
+
+    try {
+      // Importers are scheduled in list order so declared dependencies will already have been scheduled
+      val sourceNumber = new AtomicInteger(1);
+      val imports = Maps.<RepositorySource, CompletableFuture<Void>> newEnumMap(RepositorySource.class);
+      for (val importer : importers) {
+        CompletableFuture<?>[] dependencies = importer.getDependencies().stream()
+            .filter(context::isSourceActive)
+            .map(dependency -> {
+              val dependencyImport = imports.get(dependency);
+              checkState(dependencyImport != null, "Source '%s' depends on '%s' which is not scheduled before it",
+                  importer.getSource(), dependency);
+
+              return dependencyImport;
+            })
+            .toArray(CompletableFuture[]::new);
+
+        // Failures are reported and isolated per source so dependents always run
+        val sourceImport = CompletableFuture.allOf(dependencies)
+            .thenRunAsync(() -> writeSourceFiles(importer, sourceNumber), executor);
+
+        imports.put(importer.getSource(), sourceImport);
       }
+
+      CompletableFuture.allOf(imports.values().toArray(new CompletableFuture[imports.size()])).get();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private void writeSourceFiles(RepositorySourceFileImporter importer, AtomicInteger sourceNumber) {
+    try {
+      log.info(repeat("-", 80));
+      log.info("[{}/{}] Import: {}", sourceNumber.getAndIncrement(), context.getSources().size(),
+          importer.getSource());
+      log.info(repeat("-", 80));
+
+      // Perform import of source
+      importer.execute();
+    } catch (Exception e) {
+      reportException(String.format("Error processing '%s': %s", importer.getSource(), e.getMessage()), e);
     }
   }
 
   private void reportException(final java.lang.String message, Exception e) {
     log.error(message, e);
-    context.getReport().addError(message);
-    context.getReport().addException(e);
+
+    // Sources may be imported concurrently
+    val report = context.getReport();
+    synchronized (report) {
+      report.addError(message);
+      report.addException(e);
+    }
   }
 
   private Iterable<Set<RepositoryFile>> collectFiles() {
@@ -210,16 +272,17 @@ public class RepositoryImporter {
   @SneakyThrows
   private void writeFiles(Iterable<RepositoryFile> files) {
     @Cleanup
-    val writer = new RepositoryFileWriter(context.getMongoUri());
+    val writer = new RepositoryFileWriter(context.getMongoUri(), FILE,
+        context.getWriteBatchSize(), context.getWriteConcurrency(), context.isStagedWrites());
     writer.write(files);
   }
 
   @SneakyThrows
-  private void indexFiles() {
+  private void indexFiles(ArchiveCodec archiveCodec) {
     @Cleanup
     val indexer = new RepositoryFileIndexer(
         context.getMongoUri(), context.getEsUri(), context.getArchiveUri(),
-        context.getIndexAlias());
+        context.getIndexAlias(), context.getIndexConcurrency(), archiveCodec);
 
     indexer.indexFiles();
   }
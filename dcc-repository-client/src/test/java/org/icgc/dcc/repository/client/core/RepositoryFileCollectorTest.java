@@ -0,0 +1,90 @@
+package org.icgc.dcc.repository.client.core;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.icgc.dcc.repository.core.model.RepositoryFile;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import lombok.val;
+
+public class RepositoryFileCollectorTest {
+
+  @Test
+  public void testMergeFiles() {
+    val source1 = files("a", "FI1", "FI3", "FI4");
+    val source2 = files("b", "FI2", "FI3");
+    val source3 = files("c", "FI1", "FI4", "FI5");
+
+    val groups = merge(source1, source2, source3);
+
+    assertThat(groups).hasSize(5);
+    assertThat(ids(groups.get(0))).containsOnly("FI1");
+    assertThat(groups.get(0)).hasSize(2);
+    assertThat(ids(groups.get(1))).containsOnly("FI2");
+    assertThat(groups.get(1)).hasSize(1);
+    assertThat(ids(groups.get(2))).containsOnly("FI3");
+    assertThat(groups.get(2)).hasSize(2);
+    assertThat(ids(groups.get(3))).containsOnly("FI4");
+    assertThat(groups.get(3)).hasSize(2);
+    assertThat(ids(groups.get(4))).containsOnly("FI5");
+    assertThat(groups.get(4)).hasSize(1);
+  }
+
+  @Test
+  public void testMergeFilesWithMissingIds() {
+    val source1 = files("a", null, "FI1");
+    val source2 = files("b", null, null);
+
+    val groups = merge(source1, source2);
+
+    assertThat(groups).hasSize(2);
+    assertThat(ids(groups.get(0))).containsOnly((String) null);
+    assertThat(groups.get(0)).hasSize(2);
+    assertThat(ids(groups.get(1))).containsOnly("FI1");
+  }
+
+  @Test
+  public void testMergeFilesEmpty() {
+    val groups = merge(files("a"), files("b"));
+
+    assertThat(groups).isEmpty();
+  }
+
+  @SafeVarargs
+  private static List<Set<RepositoryFile>> merge(List<RepositoryFile>... sources) {
+    val sourceFiles = ImmutableList.<Iterator<RepositoryFile>> builder();
+    for (val source : sources) {
+      sourceFiles.add(source.iterator());
+    }
+
+    return newArrayList(RepositoryFileCollector.mergeFiles(sourceFiles.build()));
+  }
+
+  private static List<RepositoryFile> files(String source, String... ids) {
+    val files = ImmutableList.<RepositoryFile> builder();
+    for (val id : ids) {
+      // Distinct object ids so that files of the same group are not collapsed by set semantics
+      files.add(new RepositoryFile().setId(id).setObjectId(source + ":" + id));
+    }
+
+    return files.build();
+  }
+
+  private static List<String> ids(Set<RepositoryFile> files) {
+    val ids = Lists.<String> newArrayList();
+    for (val file : files) {
+      ids.add(file.getId());
+    }
+
+    return ids;
+  }
+
+}
@@ -23,6 +23,7 @@ import java.util.List;
 
 import org.icgc.dcc.repository.cloud.core.CloudFileProcessor;
 import org.icgc.dcc.repository.cloud.s3.CloudS3BucketReader;
+import org.icgc.dcc.repository.cloud.transfer.CloudTransferJob;
 import org.icgc.dcc.repository.cloud.transfer.CloudTransferJobReader;
 import org.icgc.dcc.repository.core.RepositoryFileContext;
 import org.icgc.dcc.repository.core.model.RepositoryFile;
@@ -31,7 +32,6 @@ import org.icgc.dcc.repository.core.util.GenericRepositorySourceFileImporter;
 import org.slf4j.Logger;
 
 import com.amazonaws.services.s3.model.S3ObjectSummary;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import lombok.NonNull;
 import lombok.val;
@@ -48,9 +48,8 @@ public abstract class CloudImporter extends GenericRepositorySourceFileImporter
     val completedJobs = readCompletedJobs();
     log.info("Read {} completed transfer jobs", formatCount(completedJobs));
 
-    log.info("Reading object summaries...");
+    // Object summaries are listed as they are indexed by the processor
     val objectSummaries = readObjectSummaries();
-    log.info("Read {} object summaries", formatCount(objectSummaries));
 
     log.info("Processing files...");
     val files = processFiles(completedJobs, objectSummaries);
@@ -59,17 +58,18 @@ public abstract class CloudImporter extends GenericRepositorySourceFileImporter
     return files;
   }
 
-  private List<ObjectNode> readCompletedJobs() {
+  private List<CloudTransferJob> readCompletedJobs() {
     val jobReader = createJobReader();
     return jobReader.readJobs();
   }
 
-  private List<S3ObjectSummary> readObjectSummaries() {
+  private Iterable<S3ObjectSummary> readObjectSummaries() {
     val bucketReader = createBucketReader();
-    return bucketReader.readSummaries();
+    return bucketReader.streamSummaries();
   }
 
-  private Iterable<RepositoryFile> processFiles(List<ObjectNode> completedJobs, List<S3ObjectSummary> objectSummaries) {
+  private Iterable<RepositoryFile> processFiles(List<CloudTransferJob> completedJobs,
+      Iterable<S3ObjectSummary> objectSummaries) {
     val fileProcessor = createFileProcessor();
     return fileProcessor.processCompletedJobs(completedJobs, objectSummaries);
   }
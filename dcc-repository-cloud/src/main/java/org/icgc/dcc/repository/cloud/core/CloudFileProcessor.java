@@ -20,13 +20,6 @@ package org.icgc.dcc.repository.cloud.core;
 import static java.lang.String.format;
 import static org.icgc.dcc.common.core.util.Formats.formatCount;
 import static org.icgc.dcc.common.core.util.stream.Collectors.toImmutableList;
-import static org.icgc.dcc.common.core.util.stream.Streams.stream;
-import static org.icgc.dcc.repository.cloud.transfer.CloudTransferJobs.getFileMd5sum;
-import static org.icgc.dcc.repository.cloud.transfer.CloudTransferJobs.getFileName;
-import static org.icgc.dcc.repository.cloud.transfer.CloudTransferJobs.getFileSize;
-import static org.icgc.dcc.repository.cloud.transfer.CloudTransferJobs.getFiles;
-import static org.icgc.dcc.repository.cloud.transfer.CloudTransferJobs.getGnosId;
-import static org.icgc.dcc.repository.cloud.transfer.CloudTransferJobs.getObjectId;
 import static org.icgc.dcc.repository.cloud.util.S3Objects.getObjectId;
 
 import java.util.List;
@@ -35,6 +28,8 @@ import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import org.icgc.dcc.repository.cloud.transfer.CloudTransferFile;
+import org.icgc.dcc.repository.cloud.transfer.CloudTransferJob;
 import org.icgc.dcc.repository.core.RepositoryFileContext;
 import org.icgc.dcc.repository.core.RepositoryFileProcessor;
 import org.icgc.dcc.repository.core.model.Repository;
@@ -43,8 +38,6 @@ import org.icgc.dcc.repository.core.model.RepositoryFile.FileAccess;
 import org.icgc.dcc.repository.core.model.RepositoryFile.FileFormat;
 
 import com.amazonaws.services.s3.model.S3ObjectSummary;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 
@@ -65,11 +58,11 @@ public class CloudFileProcessor extends RepositoryFileProcessor {
     this.repository = repository;
   }
 
-  public Iterable<RepositoryFile> processCompletedJobs(@NonNull List<ObjectNode> completedJobs,
+  public Iterable<RepositoryFile> processCompletedJobs(@NonNull List<CloudTransferJob> completedJobs,
       @NonNull Iterable<S3ObjectSummary> objectSummaries) {
     log.info("Indexing object summaries...");
     val objectSummaryIndex = indexObjectSummaries(objectSummaries);
-    log.info("Finished indexing {} object summaries...", formatCount(objectSummaries));
+    log.info("Finished indexing {} object summaries...", formatCount(objectSummaryIndex.values()));
 
     log.info("Creating object files...");
     val objectFiles = createObjectFiles(completedJobs, objectSummaryIndex);
@@ -78,16 +71,16 @@ public class CloudFileProcessor extends RepositoryFileProcessor {
     return objectFiles;
   }
 
-  private Iterable<RepositoryFile> createObjectFiles(List<ObjectNode> completedJobs,
+  private Iterable<RepositoryFile> createObjectFiles(List<CloudTransferJob> completedJobs,
       Map<String, S3ObjectSummary> objectSummaryIndex) {
     val objectFiles = ImmutableList.<RepositoryFile> builder();
     for (val completedJob : completedJobs) {
       for (val file : resolveIncludedFiles(completedJob)) {
-        val objectId = getObjectId(file);
+        val objectId = file.getObjectId();
         val objectSummary = objectSummaryIndex.get(objectId);
         if (objectSummary == null) {
           context.reportWarning("Missing object summary for object id %s and completed job %s", objectId,
-              completedJob.path("_runs_"));
+              completedJob.getRuns());
           continue;
         }
 
@@ -100,7 +93,8 @@ public class CloudFileProcessor extends RepositoryFileProcessor {
     return objectFiles.build();
   }
 
-  private RepositoryFile createObjectFile(ObjectNode job, JsonNode file, S3ObjectSummary objectSummary) {
+  private RepositoryFile createObjectFile(CloudTransferJob job, CloudTransferFile file,
+      S3ObjectSummary objectSummary) {
     log.debug("Processing bucket entry: {}", format("%-50s %10d %s",
         objectSummary.getKey(), objectSummary.getSize(), objectSummary.getStorageClass()));
 
@@ -108,9 +102,9 @@ public class CloudFileProcessor extends RepositoryFileProcessor {
     // Prepare
     //
 
-    val objectId = getObjectId(file);
-    val gnosId = getGnosId(job);
-    val fileName = getFileName(file);
+    val objectId = file.getObjectId();
+    val gnosId = job.getGnosId();
+    val fileName = file.getFileName();
     val xmlFile = resolveXmlFile(job, gnosId);
     val baiFile = resolveBaiFile(job, fileName);
     val tbiFile = resolveTbiFile(job, fileName);
@@ -129,7 +123,7 @@ public class CloudFileProcessor extends RepositoryFileProcessor {
         .setFileName(fileName)
         .setFileFormat(resolveFileFormat(file))
         .setFileSize(objectSummary.getSize())
-        .setFileMd5sum(getFileMd5sum(file))
+        .setFileMd5sum(file.getFileMd5sum())
         .setLastModified(objectSummary.getLastModified().getTime() / 1000L) // Seconds
         .setRepoDataBundleId(gnosId)
         .setRepoFileId(objectId)
@@ -142,13 +136,13 @@ public class CloudFileProcessor extends RepositoryFileProcessor {
         .setRepoDataPath(repository.getType().getDataPath() + "/" + objectId);
 
     if (xmlFile.isPresent()) {
-      val xmlId = getObjectId(xmlFile.get());
+      val xmlId = xmlFile.get().getObjectId();
       fileCopy
           .setRepoMetadataPath(repository.getType().getMetadataPath() + "/" + xmlId);
     }
 
     if (baiFile.isPresent()) {
-      val baiFileName = getFileName(baiFile.get());
+      val baiFileName = baiFile.get().getFileName();
       val baiObjectId = resolveObjectId(gnosId, baiFileName);
       fileCopy.getIndexFile()
           .setId(context.ensureFileId(baiObjectId))
@@ -156,11 +150,11 @@ public class CloudFileProcessor extends RepositoryFileProcessor {
           .setRepoFileId(null) // TODO: Resolve
           .setFileName(baiFileName)
           .setFileFormat(FileFormat.BAI)
-          .setFileSize(getFileSize(baiFile.get()))
-          .setFileMd5sum(getFileMd5sum(baiFile.get()));
+          .setFileSize(baiFile.get().getFileSize())
+          .setFileMd5sum(baiFile.get().getFileMd5sum());
     }
     if (tbiFile.isPresent()) {
-      val tbiFileName = getFileName(tbiFile.get());
+      val tbiFileName = tbiFile.get().getFileName();
       val tbiObjectId = resolveObjectId(gnosId, tbiFileName);
       fileCopy.getIndexFile()
           .setId(context.ensureFileId(tbiObjectId))
@@ -168,11 +162,11 @@ public class CloudFileProcessor extends RepositoryFileProcessor {
           .setRepoFileId(null) // TODO: Resolve
           .setFileName(tbiFileName)
           .setFileFormat(FileFormat.TBI)
-          .setFileSize(getFileSize(tbiFile.get()))
-          .setFileMd5sum(getFileMd5sum(tbiFile.get()));
+          .setFileSize(tbiFile.get().getFileSize())
+          .setFileMd5sum(tbiFile.get().getFileMd5sum());
     }
     if (idxFile.isPresent()) {
-      val idxFileName = getFileName(idxFile.get());
+      val idxFileName = idxFile.get().getFileName();
       val idxObjectId = resolveObjectId(gnosId, idxFileName);
       fileCopy.getIndexFile()
           .setId(context.ensureFileId(idxObjectId))
@@ -180,8 +174,8 @@ public class CloudFileProcessor extends RepositoryFileProcessor {
           .setRepoFileId(null) // TODO: Resolve
           .setFileName(idxFileName)
           .setFileFormat(FileFormat.IDX)
-          .setFileSize(getFileSize(idxFile.get()))
-          .setFileMd5sum(getFileMd5sum(idxFile.get()));
+          .setFileSize(idxFile.get().getFileSize())
+          .setFileMd5sum(idxFile.get().getFileMd5sum());
     }
 
     return objectFile;
@@ -191,48 +185,49 @@ public class CloudFileProcessor extends RepositoryFileProcessor {
   // Utilities
   //
 
-  private static Iterable<JsonNode> resolveIncludedFiles(ObjectNode job) {
+  private static Iterable<CloudTransferFile> resolveIncludedFiles(CloudTransferJob job) {
     return resolveFiles(job, file -> isBamFile(file) || isVcfFile(file)).collect(toImmutableList());
   }
 
-  private static String resolveFileFormat(JsonNode file) {
+  private static String resolveFileFormat(CloudTransferFile file) {
     return isBamFile(file) ? FileFormat.BAM : FileFormat.VCF;
   }
 
-  private static boolean isBamFile(JsonNode file) {
+  private static boolean isBamFile(CloudTransferFile file) {
     return hasFileExtension(file, ".bam");
   }
 
-  private static boolean isVcfFile(JsonNode file) {
+  private static boolean isVcfFile(CloudTransferFile file) {
     return hasFileExtension(file, ".vcf.gz");
   }
 
-  private static boolean hasFileExtension(JsonNode file, String fileType) {
-    return getFileName(file).toLowerCase().endsWith(fileType.toLowerCase());
+  private static boolean hasFileExtension(CloudTransferFile file, String fileType) {
+    return file.getFileName().toLowerCase().endsWith(fileType.toLowerCase());
   }
 
-  private static Optional<JsonNode> resolveBaiFile(ObjectNode job, String fileName) {
+  private static Optional<CloudTransferFile> resolveBaiFile(CloudTransferJob job, String fileName) {
     return resolveFile(job, fileName + ".bai");
   }
 
-  private static Optional<JsonNode> resolveTbiFile(ObjectNode job, String fileName) {
+  private static Optional<CloudTransferFile> resolveTbiFile(CloudTransferJob job, String fileName) {
     return resolveFile(job, fileName + ".tbi");
   }
 
-  private static Optional<JsonNode> resolveIdxFile(ObjectNode job, String fileName) {
+  private static Optional<CloudTransferFile> resolveIdxFile(CloudTransferJob job, String fileName) {
     return resolveFile(job, fileName + ".idx");
   }
 
-  private static Optional<JsonNode> resolveXmlFile(ObjectNode job, String gnosId) {
+  private static Optional<CloudTransferFile> resolveXmlFile(CloudTransferJob job, String gnosId) {
     return resolveFile(job, gnosId + ".xml");
   }
 
-  private static Optional<JsonNode> resolveFile(ObjectNode job, String fileName) {
-    return resolveFiles(job, file -> fileName.equals(getFileName(file))).findFirst();
+  private static Optional<CloudTransferFile> resolveFile(CloudTransferJob job, String fileName) {
+    return resolveFiles(job, file -> fileName.equals(file.getFileName())).findFirst();
   }
 
-  private static Stream<JsonNode> resolveFiles(ObjectNode job, Predicate<? super JsonNode> filter) {
-    return stream(getFiles(job)).filter(filter);
+  private static Stream<CloudTransferFile> resolveFiles(CloudTransferJob job,
+      Predicate<? super CloudTransferFile> filter) {
+    return job.getFiles().stream().filter(filter);
   }
 
   private static Map<String, S3ObjectSummary> indexObjectSummaries(Iterable<S3ObjectSummary> objectSummaries) {
@@ -18,7 +18,10 @@
 package org.icgc.dcc.repository.cloud.s3;
 
 import static org.icgc.dcc.repository.cloud.util.S3Objects.isObject;
+import static org.icgc.dcc.repository.core.util.ConcurrentIterators.produce;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -27,20 +30,26 @@ import java.util.regex.Pattern;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.Bucket;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
-import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
 
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import lombok.val;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-@RequiredArgsConstructor
 public class CloudS3BucketReader {
 
+  /**
+   * Constants.
+   */
+  private static final char[] SHARD_BOUNDARIES = "123456789abcdef".toCharArray();
+  private static final int PENDING_PAGES_PER_THREAD = 2;
+
   /**
    * Configuration.
    */
@@ -48,6 +57,7 @@ public class CloudS3BucketReader {
   private final String bucketName;
   @NonNull
   protected final String prefix;
+  private final int concurrency;
 
   /**
    * Dependencies.
@@ -55,34 +65,33 @@ public class CloudS3BucketReader {
   @NonNull
   protected final AmazonS3 s3;
 
-  public List<S3ObjectSummary> readSummaries() {
-    val objectSummaries = ImmutableList.<S3ObjectSummary> builder();
-
-    // For all bucket partitions
-    for (val bucketName : getBucketNames()) {
-      readBucket(bucketName, prefix, (objectSummary) -> {
-        if (isObject(objectSummary)) {
-          objectSummaries.add(objectSummary);
-        }
-      });
-    }
-
-    return objectSummaries.build();
+  public CloudS3BucketReader(@NonNull String bucketName, @NonNull String prefix, @NonNull AmazonS3 s3) {
+    this(bucketName, prefix, s3, 1);
   }
 
-  protected void readBucket(String bucketName, String prefix, Consumer<S3ObjectSummary> callback) {
-    val request = new ListObjectsRequest().withBucketName(bucketName).withPrefix(prefix);
-    log.info("Reading summaries from '{}/{}'...", bucketName, prefix);
+  /**
+   * @param concurrency when greater than one, each bucket partition is split into hex key range shards (object ids are
+   * UUIDs so these distribute evenly) which are listed concurrently
+   */
+  public CloudS3BucketReader(@NonNull String bucketName, @NonNull String prefix, @NonNull AmazonS3 s3,
+      int concurrency) {
+    this.bucketName = bucketName;
+    this.prefix = prefix;
+    this.s3 = s3;
+    this.concurrency = concurrency;
+  }
 
-    ObjectListing listing;
-    do {
-      listing = s3.listObjects(request);
-      for (val objectSummary : listing.getObjectSummaries()) {
-        callback.accept(objectSummary);
-      }
+  public List<S3ObjectSummary> readSummaries() {
+    return ImmutableList.copyOf(streamSummaries());
+  }
 
-      request.setMarker(listing.getNextMarker());
-    } while (listing.isTruncated());
+  /**
+   * @return object summaries listed anew on each iteration and yielded as their listing pages arrive
+   */
+  public Iterable<S3ObjectSummary> streamSummaries() {
+    return () -> Iterators.filter(
+        Iterators.concat(Iterators.transform(readPages(), List::iterator)),
+        objectSummary -> isObject(objectSummary));
   }
 
   protected Set<String> getBucketNames() {
@@ -97,10 +106,122 @@ public class CloudS3BucketReader {
     return bucketNames.build();
   }
 
+  private Iterator<List<S3ObjectSummary>> readPages() {
+    val shards = getShards();
+    if (concurrency <= 1) {
+      return Iterators.concat(Iterators.transform(shards.iterator(), ShardIterator::new));
+    }
+
+    log.info("Reading summaries from {} shards using {} concurrent requests...", shards.size(), concurrency);
+    return produce("s3-list", shards, concurrency, concurrency * PENDING_PAGES_PER_THREAD, this::listShard);
+  }
+
+  private void listShard(Shard shard, Consumer<List<S3ObjectSummary>> pages) {
+    val shardPages = new ShardIterator(shard);
+    while (shardPages.hasNext()) {
+      val page = shardPages.next();
+      if (!page.isEmpty()) {
+        pages.accept(page);
+      }
+    }
+  }
+
+  private List<Shard> getShards() {
+    val shards = ImmutableList.<Shard> builder();
+
+    // For all bucket partitions
+    for (val bucketName : getBucketNames()) {
+      if (concurrency <= 1) {
+        shards.add(new Shard(bucketName, null, null));
+        continue;
+      }
+
+      // Contiguous key ranges, open at both ends, so that keys not starting with a hex digit are still covered
+      String lowerBound = null;
+      for (val boundary : SHARD_BOUNDARIES) {
+        val upperBound = prefix + boundary;
+        shards.add(new Shard(bucketName, lowerBound, upperBound));
+        lowerBound = upperBound;
+      }
+
+      shards.add(new Shard(bucketName, lowerBound, null));
+    }
+
+    return shards.build();
+  }
+
   private boolean isBucketPartition(Bucket bucketPartition) {
     // Bucket partitioning naming scheme
     val bucketPartitionPattern = Pattern.quote(bucketName) + "(\\.\\d+)?";
     return bucketPartition.getName().matches(bucketPartitionPattern);
   }
 
+  /**
+   * Keys of a bucket partition after {@code lowerBound} (exclusive, as an S3 marker) up to {@code upperBound}
+   * (inclusive). {@code null} bounds are unbounded.
+   */
+  @Value
+  private static class Shard {
+
+    String bucketName;
+    String lowerBound;
+    String upperBound;
+
+  }
+
+  /**
+   * Lists the pages of a single shard, one request per iteration.
+   */
+  private class ShardIterator extends AbstractIterator<List<S3ObjectSummary>> {
+
+    private final Shard shard;
+    private final ListObjectsRequest request;
+    private boolean truncated = true;
+
+    private ShardIterator(Shard shard) {
+      this.shard = shard;
+      this.request = new ListObjectsRequest()
+          .withBucketName(shard.getBucketName())
+          .withPrefix(prefix)
+          .withMarker(shard.getLowerBound());
+      log.info("Reading summaries from '{}/{}' after '{}' up to '{}'...",
+          shard.getBucketName(), prefix, shard.getLowerBound(), shard.getUpperBound());
+    }
+
+    @Override
+    protected List<S3ObjectSummary> computeNext() {
+      if (!truncated) {
+        return endOfData();
+      }
+
+      val listing = s3.listObjects(request);
+      val objectSummaries = listing.getObjectSummaries();
+      truncated = listing.isTruncated() && !objectSummaries.isEmpty();
+      if (truncated) {
+        // The next marker is only guaranteed when a delimiter is specified
+        val nextMarker = listing.getNextMarker();
+        request.setMarker(nextMarker != null ? nextMarker : objectSummaries.get(objectSummaries.size() - 1).getKey());
+      }
+
+      val upperBound = shard.getUpperBound();
+      if (upperBound == null) {
+        return objectSummaries;
+      }
+
+      val shardSummaries = new ArrayList<S3ObjectSummary>(objectSummaries.size());
+      for (val objectSummary : objectSummaries) {
+        if (objectSummary.getKey().compareTo(upperBound) > 0) {
+          // Remaining keys belong to the next shard
+          truncated = false;
+          break;
+        }
+
+        shardSummaries.add(objectSummary);
+      }
+
+      return shardSummaries;
+    }
+
+  }
+
 }
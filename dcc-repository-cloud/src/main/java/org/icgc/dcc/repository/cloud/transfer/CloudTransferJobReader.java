@@ -17,37 +17,42 @@
  */
 package org.icgc.dcc.repository.cloud.transfer;
 
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
 import static org.icgc.dcc.common.core.util.stream.Collectors.toImmutableList;
 import static org.icgc.dcc.common.core.util.stream.Streams.stream;
+import static org.icgc.dcc.repository.cloud.transfer.CloudTransferJobs.toJob;
+import static org.icgc.dcc.repository.cloud.transfer.CloudTransferJobs.toNode;
+import static org.icgc.dcc.repository.core.util.ConcurrentIterators.transform;
 
 import java.io.File;
-import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
-import org.eclipse.jgit.api.errors.GitAPIException;
 import org.icgc.dcc.repository.core.util.TransferMetadataRepository;
+import org.icgc.dcc.repository.core.util.TransferMetadataSnapshot;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
 
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.val;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-@RequiredArgsConstructor
 public class CloudTransferJobReader {
 
   /**
    * Constants.
    */
   private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final int DEFAULT_CONCURRENCY = Runtime.getRuntime().availableProcessors();
+  private static final int PENDING_FILES_PER_THREAD = 10;
+  private static final String SNAPSHOT_SUFFIX = "jobs.jsonl";
 
   /**
    * Configuration.
@@ -58,32 +63,58 @@ public class CloudTransferJobReader {
   private final File repoDir;
   @NonNull
   private final String repoDirGlob;
+  private final int concurrency;
 
-  @SneakyThrows
-  public List<ObjectNode> readJobs() {
-    // Ensure we are in-sync with the remote
-    updateMetadata();
+  public CloudTransferJobReader(@NonNull String repoUrl, @NonNull File repoDir, @NonNull String repoDirGlob) {
+    this(repoUrl, repoDir, repoDirGlob, DEFAULT_CONCURRENCY);
+  }
 
-    // Read and assemble
-    return readFiles();
+  public CloudTransferJobReader(@NonNull String repoUrl, @NonNull File repoDir, @NonNull String repoDirGlob,
+      int concurrency) {
+    this.repoUrl = repoUrl;
+    this.repoDir = repoDir;
+    this.repoDirGlob = repoDirGlob;
+    this.concurrency = concurrency;
   }
 
-  private void updateMetadata() throws GitAPIException, IOException {
+  @SneakyThrows
+  public List<CloudTransferJob> readJobs() {
+    // Ensure we are in-sync with the remote
     val repository = new TransferMetadataRepository(repoUrl, repoDir, false);
-    repository.update();
+    val changes = repository.update();
+
+    // Read and assemble, only parsing job files changed since the last run
+    val snapshot = TransferMetadataSnapshot.load(repository.getStateFile(SNAPSHOT_SUFFIX), changes);
+    val jobs = readFiles(snapshot);
+
+    snapshot.save();
+    repository.markProcessed(changes);
+
+    return jobs;
   }
 
-  private List<ObjectNode> readFiles() {
-    return resolveCompletedDirs()
+  private List<CloudTransferJob> readFiles(TransferMetadataSnapshot snapshot) {
+    val jobFiles = resolveCompletedDirs()
         .flatMap(this::resolveJobFiles)
-        .map(this::readFile)
         .collect(toImmutableList());
+
+    // Bounded window of pending parses keeps the jobs in file order
+    log.info("Reading {} job files using {} threads...", formatCount(jobFiles), concurrency);
+    return ImmutableList.copyOf(transform("transfer-job", jobFiles.iterator(), concurrency,
+        concurrency * PENDING_FILES_PER_THREAD, jobFile -> readFile(jobFile, snapshot)));
+  }
+
+  private CloudTransferJob readFile(Path jsonFile, TransferMetadataSnapshot snapshot) {
+    val path = repoDir.toPath().relativize(jsonFile).toString();
+    return toJob(snapshot.get(path, () -> toNode(readFile(jsonFile))));
   }
 
   @SneakyThrows
-  private ObjectNode readFile(Path jsonFile) {
+  private static CloudTransferJob readFile(Path jsonFile) {
     log.debug("Reading '{}'...", jsonFile);
-    return (ObjectNode) MAPPER.readTree(jsonFile.toFile());
+
+    // Only the projection is retained, not the full tree
+    return toJob((ObjectNode) MAPPER.readTree(jsonFile.toFile()));
   }
 
   @SneakyThrows
@@ -21,14 +21,57 @@ import static lombok.AccessLevel.PRIVATE;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
 
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
+import lombok.val;
 
 @NoArgsConstructor(access = PRIVATE)
 public final class CloudTransferJobs {
 
+  public static CloudTransferJob toJob(@NonNull ObjectNode job) {
+    val files = ImmutableList.<CloudTransferFile> builder();
+    for (val file : getFiles(job)) {
+      files.add(toFile(file));
+    }
+
+    return new CloudTransferJob(getGnosId(job), files.build(), job.path("_runs_"));
+  }
+
+  /**
+   * @return the inverse of {@link #toJob(ObjectNode)}
+   */
+  public static ObjectNode toNode(@NonNull CloudTransferJob job) {
+    val node = JsonNodeFactory.instance.objectNode();
+    node.put("gnos_id", job.getGnosId());
+    if (!job.getRuns().isMissingNode()) {
+      node.set("_runs_", job.getRuns());
+    }
+
+    val files = node.putArray("files");
+    for (val file : job.getFiles()) {
+      files.addObject()
+          .put("object_id", file.getObjectId())
+          .put("file_name", file.getFileName())
+          .put("file_size", file.getFileSize())
+          .put("file_md5sum", file.getFileMd5sum());
+    }
+
+    return node;
+  }
+
+  public static CloudTransferFile toFile(@NonNull JsonNode file) {
+    // Not all files (e.g. XML) carry every field
+    return new CloudTransferFile(
+        file.path("object_id").textValue(),
+        getFileName(file),
+        file.path("file_size").longValue(),
+        file.path("file_md5sum").textValue());
+  }
+
   public static ArrayNode getFiles(@NonNull ObjectNode job) {
     return job.withArray("files");
   }
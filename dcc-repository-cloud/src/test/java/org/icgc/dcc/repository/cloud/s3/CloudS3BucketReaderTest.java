@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.cloud.s3;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.icgc.dcc.common.core.util.stream.Collectors.toImmutableSet;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.Bucket;
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+
+import lombok.val;
+
+public class CloudS3BucketReaderTest {
+
+  /**
+   * Constants.
+   */
+  private static final String BUCKET_NAME = "bucket";
+  private static final String PREFIX = "data/";
+  private static final int PAGE_SIZE = 7;
+
+  @Test
+  public void testReadSummariesConcurrently() {
+    val keys = createKeys(500);
+    val s3 = createS3(keys);
+
+    val sequential = new CloudS3BucketReader(BUCKET_NAME, PREFIX, s3).readSummaries();
+    val concurrent = new CloudS3BucketReader(BUCKET_NAME, PREFIX, s3, 4).readSummaries();
+
+    assertThat(getKeys(sequential)).hasSize(sequential.size()).isEqualTo(keys);
+    assertThat(getKeys(concurrent)).hasSize(concurrent.size()).isEqualTo(keys);
+  }
+
+  private static Set<String> createKeys(int count) {
+    val keys = ImmutableSet.<String> builder();
+    for (int i = 0; i < count; i++) {
+      keys.add(PREFIX + UUID.randomUUID());
+    }
+
+    return keys.build();
+  }
+
+  private static Set<String> getKeys(List<S3ObjectSummary> objectSummaries) {
+    return objectSummaries.stream().map(S3ObjectSummary::getKey).collect(toImmutableSet());
+  }
+
+  /**
+   * In-memory S3 stand-in which splits the keys across two bucket partitions and pages them without a next marker.
+   */
+  private static AmazonS3 createS3(Set<String> keys) {
+    val partitions = ImmutableList.of(BUCKET_NAME, BUCKET_NAME + ".1");
+    val buckets = ImmutableList.of(new Bucket(partitions.get(0)), new Bucket(partitions.get(1)), new Bucket("other"));
+    val sortedKeys = ImmutableSortedSet.copyOf(keys);
+
+    return (AmazonS3) Proxy.newProxyInstance(AmazonS3.class.getClassLoader(), new Class<?>[] { AmazonS3.class },
+        (proxy, method, args) -> {
+          if (method.getName().equals("listBuckets") && args == null) {
+            return buckets;
+          }
+          if (method.getName().equals("listObjects") && args.length == 1 && args[0] instanceof ListObjectsRequest) {
+            val request = (ListObjectsRequest) args[0];
+            val partition = partitions.indexOf(request.getBucketName());
+
+            val listing = new ObjectListing();
+            for (val key : sortedKeys) {
+              val partitioned = Math.abs(key.hashCode() % partitions.size()) == partition;
+              val afterMarker = request.getMarker() == null || key.compareTo(request.getMarker()) > 0;
+              if (!partitioned || !afterMarker || !key.startsWith(request.getPrefix())) {
+                continue;
+              }
+              if (listing.getObjectSummaries().size() == PAGE_SIZE) {
+                listing.setTruncated(true);
+                break;
+              }
+
+              val objectSummary = new S3ObjectSummary();
+              objectSummary.setBucketName(request.getBucketName());
+              objectSummary.setKey(key);
+              listing.getObjectSummaries().add(objectSummary);
+            }
+
+            return listing;
+          }
+
+          throw new UnsupportedOperationException(method.getName());
+        });
+  }
+
+}
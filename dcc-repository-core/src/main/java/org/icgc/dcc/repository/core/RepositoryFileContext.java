@@ -17,28 +17,44 @@
  */
 package org.icgc.dcc.repository.core;
 
+import static com.google.common.base.Stopwatch.createStarted;
+import static com.google.common.util.concurrent.Futures.getUnchecked;
 import static lombok.AccessLevel.PACKAGE;
 import static lombok.AccessLevel.PRIVATE;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
 import static org.icgc.dcc.repository.core.util.RepositoryFiles.qualifyDonorId;
 
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import lombok.*;
 import org.icgc.dcc.common.core.report.BufferedReport;
 import org.icgc.dcc.common.tcga.core.TCGAMappings;
 import org.icgc.dcc.id.client.core.IdClient;
 import org.icgc.dcc.repository.core.model.RepositorySource;
+import org.icgc.dcc.repository.core.model.SubmittedId;
+import org.icgc.dcc.repository.core.util.RepositoryIdCache;
+import org.icgc.dcc.repository.core.util.RepositoryIdCache.IdType;
 
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.mongodb.MongoClientURI;
 
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @RequiredArgsConstructor(access = PACKAGE)
-public class RepositoryFileContext {
+public class RepositoryFileContext implements Closeable {
 
   /**
    * Configuration.
@@ -89,6 +105,31 @@ public class RepositoryFileContext {
   private final Set<RepositorySource> sources;
   @Getter
   private final boolean readOnly;
+  @Getter
+  private final int importConcurrency;
+  @Getter
+  private final int readConcurrency;
+  @Getter
+  private final int writeBatchSize;
+  @Getter
+  private final int writeConcurrency;
+  @Getter
+  private final boolean stagedWrites;
+  @Getter
+  private final int indexConcurrency;
+  /**
+   * Name of an {@code ArchiveCodec}, which lives in the index module.
+   */
+  @Getter
+  @NonNull
+  private final String archiveCodec;
+  @Getter
+  private final int idConcurrency;
+  /**
+   * File that crawled TCGA archives are kept in between runs, if any.
+   */
+  @Getter
+  private final File tcgaArchiveCacheFile;
 
   /**
    * Metadata.
@@ -101,6 +142,7 @@ public class RepositoryFileContext {
    */
   @NonNull
   private final IdClient idClient;
+  private final RepositoryIdCache idCache;
   @NonNull
   private final TCGAMappings tcgaMappings;
   @NonNull
@@ -115,16 +157,26 @@ public class RepositoryFileContext {
   @Getter(lazy = true, value = PRIVATE)
   private final Set<String> dccSubmittedDonorIds = dccIdResolver.resolveIds(esSearchUrl);
 
+  /**
+   * State.
+   */
+  private ExecutorService idExecutor; // Created by the first concurrent bulk call and shared by the rest
+
   public boolean isSourceActive(@NonNull RepositorySource source) {
     return sources.contains(source);
   }
 
   public void reportError(String error, Object... args) {
-    report.addError(error, args);
+    // Sources may be imported concurrently
+    synchronized (report) {
+      report.addError(error, args);
+    }
   }
 
   public void reportWarning(String warning, Object... args) {
-    report.addWarning(warning, args);
+    synchronized (report) {
+      report.addWarning(warning, args);
+    }
   }
 
   public String getPrimarySite(@NonNull String projectCode) {
@@ -158,7 +210,8 @@ public class RepositoryFileContext {
   }
 
   public String getDonorId(@NonNull String submittedDonorId, @NonNull String submittedProjectId) {
-    return idClient.getDonorId(submittedDonorId, submittedProjectId).orElse(null);
+    return cached(IdType.DONOR, submittedDonorId, submittedProjectId,
+        () -> idClient.getDonorId(submittedDonorId, submittedProjectId).orElse(null));
   }
 
   public String ensureDonorId(@NonNull String submittedDonorId, @NonNull String submittedProjectId) {
@@ -167,7 +220,8 @@ public class RepositoryFileContext {
         return getDonorId(submittedDonorId, submittedProjectId);
       }
 
-      return idClient.createDonorId(submittedDonorId, submittedProjectId);
+      return cached(IdType.DONOR, submittedDonorId, submittedProjectId,
+          () -> idClient.createDonorId(submittedDonorId, submittedProjectId));
     } catch (Exception e) {
       throw new RuntimeException("Error ensuring donor id for submittedDonorId=" + submittedDonorId
           + ", submittedProjectId=" + submittedProjectId, e);
@@ -175,7 +229,8 @@ public class RepositoryFileContext {
   }
 
   public String getSpecimenId(@NonNull String submittedSpecimenId, @NonNull String submittedProjectId) {
-    return idClient.getSpecimenId(submittedSpecimenId, submittedProjectId).orElse(null);
+    return cached(IdType.SPECIMEN, submittedSpecimenId, submittedProjectId,
+        () -> idClient.getSpecimenId(submittedSpecimenId, submittedProjectId).orElse(null));
   }
 
   public String ensureSpecimenId(@NonNull String submittedSpecimenId, @NonNull String submittedProjectId) {
@@ -184,7 +239,8 @@ public class RepositoryFileContext {
         return getSpecimenId(submittedSpecimenId, submittedProjectId);
       }
 
-      return idClient.createSpecimenId(submittedSpecimenId, submittedProjectId);
+      return cached(IdType.SPECIMEN, submittedSpecimenId, submittedProjectId,
+          () -> idClient.createSpecimenId(submittedSpecimenId, submittedProjectId));
 
     } catch (Exception e) {
       throw new RuntimeException("Error ensuring specimen id for submittedSpecimenId=" + submittedSpecimenId
@@ -193,7 +249,8 @@ public class RepositoryFileContext {
   }
 
   public String getSampleId(@NonNull String submittedSampleId, @NonNull String submittedProjectId) {
-    return idClient.getSampleId(submittedSampleId, submittedProjectId).orElse(null);
+    return cached(IdType.SAMPLE, submittedSampleId, submittedProjectId,
+        () -> idClient.getSampleId(submittedSampleId, submittedProjectId).orElse(null));
   }
 
   public String ensureSampleId(@NonNull String submittedSampleId, @NonNull String submittedProjectId) {
@@ -202,27 +259,116 @@ public class RepositoryFileContext {
         return getSampleId(submittedSampleId, submittedProjectId);
       }
 
-      return idClient.createSampleId(submittedSampleId, submittedProjectId);
+      return cached(IdType.SAMPLE, submittedSampleId, submittedProjectId,
+          () -> idClient.createSampleId(submittedSampleId, submittedProjectId));
     } catch (Exception e) {
       throw new RuntimeException("Error ensuring sample id for submittedSampleId=" + submittedSampleId
           + ", submittedProjectId=" + submittedProjectId, e);
     }
   }
 
+  /**
+   * Bulk variant of {@link #ensureDonorId(String, String)}.
+   * 
+   * @return the donor id of each submitted donor id, which may be {@code null} if read only
+   */
+  public Map<SubmittedId, String> ensureDonorIds(@NonNull Set<SubmittedId> submittedDonorIds) {
+    return ensureIds("donor", submittedDonorIds, id -> ensureDonorId(id.getSubmittedId(), id.getProjectCode()));
+  }
+
+  /**
+   * Bulk variant of {@link #ensureSpecimenId(String, String)}.
+   * 
+   * @return the specimen id of each submitted specimen id, which may be {@code null} if read only
+   */
+  public Map<SubmittedId, String> ensureSpecimenIds(@NonNull Set<SubmittedId> submittedSpecimenIds) {
+    return ensureIds("specimen", submittedSpecimenIds,
+        id -> ensureSpecimenId(id.getSubmittedId(), id.getProjectCode()));
+  }
+
+  /**
+   * Bulk variant of {@link #ensureSampleId(String, String)}.
+   * 
+   * @return the sample id of each submitted sample id, which may be {@code null} if read only
+   */
+  public Map<SubmittedId, String> ensureSampleIds(@NonNull Set<SubmittedId> submittedSampleIds) {
+    return ensureIds("sample", submittedSampleIds, id -> ensureSampleId(id.getSubmittedId(), id.getProjectCode()));
+  }
+
   public String ensureFileId(@NonNull String objectId) {
     try {
       if (readOnly) {
         return getFileId(objectId);
       }
 
-      return idClient.createFileId(objectId);
+      return cached(IdType.FILE, objectId, null, () -> idClient.createFileId(objectId));
     } catch (Exception e) {
       throw new RuntimeException("Error ensuring file id for objectId=" + objectId, e);
     }
   }
 
   public String getFileId(@NonNull String submittedFileId) {
-    return idClient.getFileId(submittedFileId).orElse(null);
+    return cached(IdType.FILE, submittedFileId, null, () -> idClient.getFileId(submittedFileId).orElse(null));
+  }
+
+  /**
+   * Releases the id threads and the id cache, if any. Invoked by Spring on shutdown for the application context.
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      if (idExecutor != null) {
+        idExecutor.shutdownNow();
+        idExecutor = null;
+      }
+    }
+
+    if (idCache != null) {
+      idCache.close();
+    }
+  }
+
+  private String cached(IdType type, String submittedId, String projectCode, Supplier<String> resolver) {
+    return idCache == null ? resolver.get() : idCache.get(type, submittedId, projectCode, resolver);
+  }
+
+  private Map<SubmittedId, String> ensureIds(String entityType, Set<SubmittedId> submittedIds,
+      Function<SubmittedId, String> ensure) {
+    val watch = createStarted();
+    val ids = Maps.<SubmittedId, String> newHashMapWithExpectedSize(submittedIds.size());
+    if (idConcurrency == 1 || submittedIds.size() <= 1) {
+      for (val submittedId : submittedIds) {
+        ids.put(submittedId, ensure.apply(submittedId));
+      }
+    } else {
+      // The id service has no batch endpoint so overlap the individual requests instead
+      val executor = getIdExecutor();
+      val futures = Maps.<SubmittedId, Future<String>> newHashMapWithExpectedSize(submittedIds.size());
+      try {
+        for (val submittedId : submittedIds) {
+          futures.put(submittedId, executor.submit(() -> ensure.apply(submittedId)));
+        }
+        for (val entry : futures.entrySet()) {
+          ids.put(entry.getKey(), getUnchecked(entry.getValue()));
+        }
+      } catch (RuntimeException e) {
+        // Do not leave the rest of a failed call queued in front of later calls
+        futures.values().forEach(future -> future.cancel(true));
+        throw e;
+      }
+    }
+
+    log.debug("Ensured {} {} ids in {}", formatCount(ids.size()), entityType, watch);
+    return ids;
+  }
+
+  private synchronized ExecutorService getIdExecutor() {
+    if (idExecutor == null) {
+      idExecutor = Executors.newFixedThreadPool(idConcurrency,
+          new ThreadFactoryBuilder().setNameFormat("id-%d").setDaemon(true).build());
+    }
+
+    return idExecutor;
   }
 
 }
@@ -21,6 +21,7 @@ import static java.lang.String.format;
 import static java.util.Collections.emptyMap;
 import static lombok.AccessLevel.PRIVATE;
 
+import java.io.File;
 import java.net.URI;
 import java.net.URL;
 import java.util.Map;
@@ -35,6 +36,8 @@ import org.icgc.dcc.id.client.util.CachingIdClient;
 import org.icgc.dcc.id.client.util.HashIdClient;
 import org.icgc.dcc.repository.core.model.RepositorySource;
 import org.icgc.dcc.repository.core.reader.RepositoryProjectReader;
+import org.icgc.dcc.repository.core.util.RepositoryIdCache;
+import org.icgc.dcc.repository.core.writer.RepositoryFileWriter;
 
 import com.mongodb.MongoClientURI;
 
@@ -128,6 +131,36 @@ public final class RepositoryFileContextBuilder {
   @Setter
   @Accessors(chain = true, fluent = true)
   private boolean readOnly = false;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int importConcurrency = 1;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int readConcurrency = 1;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int writeBatchSize = RepositoryFileWriter.DEFAULT_BATCH_SIZE;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int writeConcurrency = RepositoryFileWriter.DEFAULT_WRITE_CONCURRENCY;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private boolean stagedWrites = false;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int indexConcurrency = 1;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private String archiveCodec = "GZIP";
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int idConcurrency = 1;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private File idCacheFile;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private File tcgaArchiveCacheFile;
 
   public static RepositoryFileContextBuilder builder() {
     return new RepositoryFileContextBuilder();
@@ -137,12 +170,14 @@ public final class RepositoryFileContextBuilder {
   public RepositoryFileContext build() {
     val primarySites = createPrimarySites();
     val idClient = createIdClient();
+    val idCache = createIdCache();
     val tcgaMappings = new TCGAMappingsReader().readMappings();
 
     return new RepositoryFileContext(repoMongoUri, esUri, esSearchUrl, collabUrl, collabToken,
         songPDCUrl, songPDCToken, awsUrl, awsToken, azureUrl, azureToken,
-        archiveUri, indexAlias, skipImport, sources, readOnly,
-        primarySites, idClient, tcgaMappings, pcawgIdResolver, dccIdResolver, report);
+        archiveUri, indexAlias, skipImport, sources, readOnly, importConcurrency, readConcurrency,
+        writeBatchSize, writeConcurrency, stagedWrites, indexConcurrency, archiveCodec, idConcurrency,
+        tcgaArchiveCacheFile, primarySites, idClient, idCache, tcgaMappings, pcawgIdResolver, dccIdResolver, report);
   }
 
   private Map<String, String> createPrimarySites() {
@@ -157,6 +192,12 @@ public final class RepositoryFileContextBuilder {
     return realIds ? new CachingIdClient(new HttpIdClient(idUrl, "", authToken)) : new HashIdClient();
   }
 
+  @SneakyThrows
+  private RepositoryIdCache createIdCache() {
+    // Only real ids are worth keeping between runs
+    return realIds && idCacheFile != null ? new RepositoryIdCache(idCacheFile) : null;
+  }
+
   @SneakyThrows
   private static Map<String, String> getProjectPrimarySites(MongoClientURI geneMongoUri) {
     @Cleanup
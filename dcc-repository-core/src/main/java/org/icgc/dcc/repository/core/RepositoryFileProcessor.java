@@ -43,6 +43,7 @@ import org.icgc.dcc.repository.core.meta.MetadataService;
 import org.icgc.dcc.repository.core.model.RepositoryFile;
 import org.icgc.dcc.repository.core.model.RepositoryFile.Donor;
 import org.icgc.dcc.repository.core.model.RepositoryFile.Study;
+import org.icgc.dcc.repository.core.model.SubmittedId;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Joiner;
@@ -97,35 +98,50 @@ public abstract class RepositoryFileProcessor {
    *                                 https://github.com/icgc-dcc/dcc-portal/issues/553
    */
   protected void assignIds(Iterable<RepositoryFile> donorFiles, boolean readTCGAOtherIdentifiers) {
-    for (val donorFile : donorFiles) {
-      for (val donor : donorFile.getDonors()) {
-        val projectCode = donor.getProjectCode();
-
-        // Special case for TCGA who submits barcodes to DCC but UUIDs to PCAWG
-        val translate = readTCGAOtherIdentifiers && TRANSLATABLE_PROJECT_CODES.contains(donor.getProjectCode());
-        val submittedDonorId =
-            translate ? donor.getOtherIdentifiers().getTcgaParticipantBarcode() : donor.getSubmittedDonorId();
-        val submittedSpecimenId =
-            translate ? donor.getOtherIdentifiers().getTcgaSampleBarcode() : donor.getSubmittedSpecimenId();
-        val submittedSampleId =
-            translate ? donor.getOtherIdentifiers().getTcgaAliquotBarcode() : donor.getSubmittedSampleId();
-        val submittedMatchedSampleId = donor.getMatchedControlSampleId();
-
-        // Get IDs or create if they don't exist. This is different than the other repos.
-        donor
-            .setDonorId(
-                submittedDonorId == null ? null : context.ensureDonorId(submittedDonorId, projectCode))
-            .setSpecimenId(
-                normalizeIds(submittedSpecimenId).stream()
-                    .map(s -> context.ensureSpecimenId(s, projectCode)).collect(toList()))
-            .setSampleId(
-                normalizeIds(submittedSampleId).stream()
-                    .map(s -> context.ensureSampleId(s, projectCode)).collect(toList()))
-            .setMatchedControlSampleId(
-                submittedMatchedSampleId == null ? null : context.ensureSampleId(submittedMatchedSampleId,
-                    projectCode));
+    // Collect the distinct submitted ids so that each is resolved once regardless of how many files share it
+    val submittedDonorIds = Sets.<SubmittedId> newHashSet();
+    val submittedSpecimenIds = Sets.<SubmittedId> newHashSet();
+    val submittedSampleIds = Sets.<SubmittedId> newHashSet();
+    eachFileDonor(donorFiles, donor -> {
+      val projectCode = donor.getProjectCode();
+      val submittedDonorId = getSubmittedDonorId(donor, readTCGAOtherIdentifiers);
+      if (submittedDonorId != null) {
+        submittedDonorIds.add(new SubmittedId(submittedDonorId, projectCode));
       }
-    }
+      for (val submittedSpecimenId : getSubmittedSpecimenIds(donor, readTCGAOtherIdentifiers)) {
+        submittedSpecimenIds.add(new SubmittedId(submittedSpecimenId, projectCode));
+      }
+      for (val submittedSampleId : getSubmittedSampleIds(donor, readTCGAOtherIdentifiers)) {
+        submittedSampleIds.add(new SubmittedId(submittedSampleId, projectCode));
+      }
+      if (donor.getMatchedControlSampleId() != null) {
+        submittedSampleIds.add(new SubmittedId(donor.getMatchedControlSampleId(), projectCode));
+      }
+    });
+
+    // Get IDs or create if they don't exist. This is different than the other repos.
+    val donorIds = context.ensureDonorIds(submittedDonorIds);
+    val specimenIds = context.ensureSpecimenIds(submittedSpecimenIds);
+    val sampleIds = context.ensureSampleIds(submittedSampleIds);
+
+    eachFileDonor(donorFiles, donor -> {
+      val projectCode = donor.getProjectCode();
+      val submittedDonorId = getSubmittedDonorId(donor, readTCGAOtherIdentifiers);
+      val submittedMatchedSampleId = donor.getMatchedControlSampleId();
+
+      donor
+          .setDonorId(
+              submittedDonorId == null ? null : donorIds.get(new SubmittedId(submittedDonorId, projectCode)))
+          .setSpecimenId(
+              getSubmittedSpecimenIds(donor, readTCGAOtherIdentifiers).stream()
+                  .map(s -> specimenIds.get(new SubmittedId(s, projectCode))).collect(toList()))
+          .setSampleId(
+              getSubmittedSampleIds(donor, readTCGAOtherIdentifiers).stream()
+                  .map(s -> sampleIds.get(new SubmittedId(s, projectCode))).collect(toList()))
+          .setMatchedControlSampleId(
+              submittedMatchedSampleId == null ? null : sampleIds.get(new SubmittedId(submittedMatchedSampleId,
+                  projectCode)));
+    });
   }
 
   protected void translateUUIDs(Iterable<RepositoryFile> donorFiles) {
@@ -230,6 +246,29 @@ public abstract class RepositoryFileProcessor {
     return ImmutableSet.<String> builder().addAll(tcga).addAll(target).build();
   }
 
+  private static boolean isTranslated(Donor donor, boolean readTCGAOtherIdentifiers) {
+    // Special case for TCGA who submits barcodes to DCC but UUIDs to PCAWG
+    return readTCGAOtherIdentifiers && TRANSLATABLE_PROJECT_CODES.contains(donor.getProjectCode());
+  }
+
+  private static String getSubmittedDonorId(Donor donor, boolean readTCGAOtherIdentifiers) {
+    return isTranslated(donor, readTCGAOtherIdentifiers) ?
+        donor.getOtherIdentifiers().getTcgaParticipantBarcode() :
+        donor.getSubmittedDonorId();
+  }
+
+  private static List<String> getSubmittedSpecimenIds(Donor donor, boolean readTCGAOtherIdentifiers) {
+    return normalizeIds(isTranslated(donor, readTCGAOtherIdentifiers) ?
+        donor.getOtherIdentifiers().getTcgaSampleBarcode() :
+        donor.getSubmittedSpecimenId());
+  }
+
+  private static List<String> getSubmittedSampleIds(Donor donor, boolean readTCGAOtherIdentifiers) {
+    return normalizeIds(isTranslated(donor, readTCGAOtherIdentifiers) ?
+        donor.getOtherIdentifiers().getTcgaAliquotBarcode() :
+        donor.getSubmittedSampleId());
+  }
+
   private static List<String> normalizeIds(List<String> ids) {
     if (ids == null) {
       return emptyList();
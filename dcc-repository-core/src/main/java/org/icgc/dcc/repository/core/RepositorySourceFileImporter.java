@@ -17,12 +17,23 @@
  */
 package org.icgc.dcc.repository.core;
 
+import java.util.Set;
+
 import org.icgc.dcc.repository.core.model.RepositorySource;
 
+import com.google.common.collect.ImmutableSet;
+
 public interface RepositorySourceFileImporter {
 
   RepositorySource getSource();
 
+  /**
+   * Sources that must finish importing before this one starts when importing concurrently.
+   */
+  default Set<RepositorySource> getDependencies() {
+    return ImmutableSet.of();
+  }
+
   void execute();
 
 }
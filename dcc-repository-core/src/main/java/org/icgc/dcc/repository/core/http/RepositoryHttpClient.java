@@ -0,0 +1,426 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.http;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Strings.nullToEmpty;
+import static com.google.common.net.HttpHeaders.ACCEPT_ENCODING;
+import static com.google.common.net.HttpHeaders.AUTHORIZATION;
+import static com.google.common.net.HttpHeaders.ETAG;
+import static com.google.common.net.HttpHeaders.IF_MODIFIED_SINCE;
+import static com.google.common.net.HttpHeaders.IF_NONE_MATCH;
+import static com.google.common.net.HttpHeaders.LAST_MODIFIED;
+import static java.net.HttpURLConnection.HTTP_GONE;
+import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.DAYS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * HTTP access shared by the remote source readers.
+ * <p>
+ * Responses carrying an {@code ETag} or {@code Last-Modified} validator are stored decoded in an on-disk cache and
+ * revalidated with conditional requests, so unchanged resources are not transferred again across runs. Other responses
+ * are streamed as they arrive. Bodies are requested gzip encoded, and connections are returned to the JDK keep-alive
+ * pool by always consuming responses rather than disconnecting. The number of requests in flight is bounded per client,
+ * and {@link #getClient(String)} shares one client per source.
+ * <p>
+ * Cache entries are touched whenever they are served, and {@link #configure} deletes entries that have not been used
+ * for the configured number of days. Entries of resources that are still read therefore stay, while the cache of
+ * resources that are no longer read does not grow without bound.
+ */
+@Slf4j
+public class RepositoryHttpClient {
+
+  /**
+   * Constants.
+   */
+  public static final File DEFAULT_CACHE_DIR = new File(System.getProperty("java.io.tmpdir"), "dcc-repository-http");
+  public static final int DEFAULT_MAX_REQUESTS = 8;
+  public static final int DEFAULT_CACHE_MAX_AGE_DAYS = 30;
+  private static final int CONNECT_TIMEOUT_MILLIS = (int) SECONDS.toMillis(30);
+  private static final int READ_TIMEOUT_MILLIS = (int) MINUTES.toMillis(5);
+  private static final String VALIDATORS_SUFFIX = ".validators";
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  /**
+   * Shared instances keyed by source name.
+   */
+  private static final Map<String, RepositoryHttpClient> CLIENTS = new ConcurrentHashMap<>();
+
+  /**
+   * Configuration of the shared instances, applied once by {@link #configure}.
+   */
+  private static boolean configured;
+  private static volatile File sharedCacheDir = DEFAULT_CACHE_DIR;
+  private static volatile int sharedMaxRequests = DEFAULT_MAX_REQUESTS;
+  private static volatile Map<String, Integer> sourceMaxRequests = ImmutableMap.of();
+
+  /**
+   * Configuration.
+   */
+  @NonNull
+  @Getter
+  private final File cacheDir;
+  @Getter
+  private final int maxRequests;
+
+  /**
+   * State.
+   */
+  private final Semaphore requests;
+
+  /**
+   * Configures the shared instances and evicts stale cache entries. Must be called once at startup, before any source
+   * reads.
+   * 
+   * @param maxRequests the requests in flight per source, unless overridden in {@code sourceMaxRequests}
+   * @param sourceMaxRequests the requests in flight keyed by the source name passed to {@link #getClient(String)}
+   * @param cacheMaxAgeDays the number of days after which an unused cache entry is deleted
+   */
+  public static synchronized void configure(@NonNull File cacheDir, int maxRequests,
+      @NonNull Map<String, Integer> sourceMaxRequests, int cacheMaxAgeDays) {
+    checkState(!configured, "HTTP clients are already configured");
+    checkArgument(maxRequests > 0, "Max requests must be positive: %s", maxRequests);
+    checkArgument(cacheMaxAgeDays > 0, "Cache max age must be positive: %s", cacheMaxAgeDays);
+    if (!CLIENTS.isEmpty()) {
+      log.warn("HTTP clients {} were created before configuration and keep their settings", CLIENTS.keySet());
+    }
+
+    configured = true;
+    sharedCacheDir = cacheDir;
+    sharedMaxRequests = maxRequests;
+    RepositoryHttpClient.sourceMaxRequests = ImmutableMap.copyOf(sourceMaxRequests);
+    log.info("Using HTTP cache '{}' with {} requests per source ({}) and eviction after {} days", cacheDir, maxRequests,
+        sourceMaxRequests, cacheMaxAgeDays);
+
+    evict(cacheDir, DAYS.toMillis(cacheMaxAgeDays));
+  }
+
+  public static RepositoryHttpClient getClient(@NonNull String sourceName) {
+    return CLIENTS.computeIfAbsent(sourceName,
+        name -> new RepositoryHttpClient(sharedCacheDir, sourceMaxRequests.getOrDefault(name, sharedMaxRequests)));
+  }
+
+  public RepositoryHttpClient(@NonNull File cacheDir, int maxRequests) {
+    checkArgument(maxRequests > 0, "Max requests must be positive: %s", maxRequests);
+    this.cacheDir = cacheDir;
+    this.maxRequests = maxRequests;
+    this.requests = new Semaphore(maxRequests, true);
+  }
+
+  public InputStream open(@NonNull URL url) throws IOException {
+    return open(url, ImmutableMap.of());
+  }
+
+  /**
+   * @return the decoded body of {@code url}. Non-HTTP URLs are opened directly.
+   * @throws FileNotFoundException if the resource does not exist
+   * @throws HttpStatusException if any other error status is returned
+   */
+  public InputStream open(@NonNull URL url, @NonNull Map<String, String> headers) throws IOException {
+    if (!isHttp(url)) {
+      return url.openStream();
+    }
+
+    val permit = new Permit();
+    boolean streamed = false;
+    try {
+      val cacheFile = getCacheFile(url);
+      val cacheable = !headers.containsKey(AUTHORIZATION); // Never share credentialed responses on disk
+      val connection = connect(url, headers, cacheable ? cacheFile : null);
+      if (isNotModified(connection)) {
+        log.debug("'{}' not modified. Using cached '{}'", url, cacheFile);
+        touch(cacheFile);
+        return new FileInputStream(cacheFile);
+      }
+
+      if (cacheable && hasValidators(connection)) {
+        store(url, connection, cacheFile);
+        return new FileInputStream(cacheFile);
+      }
+
+      // Stream directly, holding the permit until the body is closed
+      val body = openBody(connection);
+      streamed = true;
+      return new FilterInputStream(body) {
+
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            permit.release();
+          }
+        }
+
+      };
+    } finally {
+      if (!streamed) {
+        permit.release();
+      }
+    }
+  }
+
+  /**
+   * @return a local copy of {@code url}, downloaded into the cache unless the cached copy is still current. Non-HTTP
+   * URLs are returned as is.
+   * @throws FileNotFoundException if the resource does not exist
+   * @throws HttpStatusException if any other error status is returned
+   */
+  public File download(@NonNull URL url) throws IOException {
+    if (!isHttp(url)) {
+      return toFile(url);
+    }
+
+    val permit = new Permit();
+    try {
+      val cacheFile = getCacheFile(url);
+      val connection = connect(url, ImmutableMap.of(), cacheFile);
+      if (isNotModified(connection)) {
+        log.info("'{}' not modified. Using cached '{}'", url, cacheFile);
+        touch(cacheFile);
+        return cacheFile;
+      }
+
+      store(url, connection, cacheFile);
+      return cacheFile;
+    } finally {
+      permit.release();
+    }
+  }
+
+  private HttpURLConnection connect(URL url, Map<String, String> headers, File cacheFile) throws IOException {
+    val connection = (HttpURLConnection) url.openConnection();
+    connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+    connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+    connection.setRequestProperty(ACCEPT_ENCODING, "gzip");
+    headers.forEach(connection::setRequestProperty);
+
+    List<String> validators = cacheFile == null ? ImmutableList.<String> of() : readValidators(cacheFile);
+    if (validators.size() == 2) {
+      setRequestProperty(connection, IF_NONE_MATCH, validators.get(0));
+      setRequestProperty(connection, IF_MODIFIED_SINCE, validators.get(1));
+    }
+
+    return connection;
+  }
+
+  private static boolean isNotModified(HttpURLConnection connection) throws IOException {
+    val status = connection.getResponseCode();
+    if (status == HTTP_NOT_MODIFIED) {
+      drain(connection);
+      return true;
+    }
+
+    if (status >= 400) {
+      drain(connection);
+      val message = "Unexpected status " + status + " reading '" + connection.getURL() + "'";
+      if (status == HTTP_NOT_FOUND || status == HTTP_GONE) {
+        throw new FileNotFoundException(message);
+      }
+
+      throw new HttpStatusException(message, status);
+    }
+
+    return false;
+  }
+
+  private void store(URL url, HttpURLConnection connection, File cacheFile) throws IOException {
+    val watch = Stopwatch.createStarted();
+    Files.createDirectories(cacheDir.toPath());
+
+    // Download beside the target so a partial transfer never replaces a good cache entry
+    val tempFile = File.createTempFile(cacheFile.getName(), TEMP_SUFFIX, cacheDir);
+    try (InputStream inputStream = openBody(connection)) {
+      Files.copy(inputStream, tempFile.toPath(), REPLACE_EXISTING);
+      Files.move(tempFile.toPath(), cacheFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+    } finally {
+      tempFile.delete();
+    }
+
+    writeValidators(cacheFile, connection);
+    log.info("Cached {} bytes of '{}' in {}", cacheFile.length(), url, watch);
+  }
+
+  private File getCacheFile(URL url) {
+    return new File(cacheDir, Hashing.sha1().hashString(url.toString(), UTF_8).toString());
+  }
+
+  private static InputStream openBody(HttpURLConnection connection) throws IOException {
+    val inputStream = connection.getInputStream();
+    val gzip = "gzip".equalsIgnoreCase(connection.getContentEncoding());
+
+    return gzip ? new GZIPInputStream(inputStream) : inputStream;
+  }
+
+  /**
+   * Consumes the response so the underlying connection can be reused.
+   */
+  private static void drain(HttpURLConnection connection) {
+    try (InputStream inputStream = connection.getResponseCode() >= 400 ?
+        connection.getErrorStream() : connection.getInputStream()) {
+      if (inputStream != null) {
+        ByteStreams.copy(inputStream, ByteStreams.nullOutputStream());
+      }
+    } catch (IOException e) {
+      // Only costs reuse of the connection
+      log.debug("Could not drain response of '{}': {}", connection.getURL(), e.getMessage());
+    }
+  }
+
+  private static boolean hasValidators(HttpURLConnection connection) {
+    return connection.getHeaderField(ETAG) != null || connection.getHeaderField(LAST_MODIFIED) != null;
+  }
+
+  private static List<String> readValidators(File cacheFile) throws IOException {
+    val validatorsFile = getValidatorsFile(cacheFile);
+    if (!cacheFile.exists() || !validatorsFile.exists()) {
+      return ImmutableList.of();
+    }
+
+    // Not readAllLines, which would drop an empty trailing Last-Modified
+    return Splitter.on('\n').splitToList(new String(Files.readAllBytes(validatorsFile.toPath()), UTF_8));
+  }
+
+  private static void writeValidators(File cacheFile, HttpURLConnection connection) throws IOException {
+    val eTag = nullToEmpty(connection.getHeaderField(ETAG));
+    val lastModified = nullToEmpty(connection.getHeaderField(LAST_MODIFIED));
+
+    val validatorsFile = getValidatorsFile(cacheFile);
+    val tempFile = File.createTempFile(validatorsFile.getName(), TEMP_SUFFIX, validatorsFile.getParentFile());
+    try {
+      Files.write(tempFile.toPath(), Joiner.on('\n').join(eTag, lastModified).getBytes(UTF_8));
+      Files.move(tempFile.toPath(), validatorsFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+    } finally {
+      tempFile.delete();
+    }
+  }
+
+  /**
+   * Deletes entries, with their validators, and partial downloads last modified more than {@code maxAgeMillis} ago.
+   */
+  static void evict(File cacheDir, long maxAgeMillis) {
+    val files = cacheDir.listFiles();
+    if (files == null) {
+      return;
+    }
+
+    val cutoff = System.currentTimeMillis() - maxAgeMillis;
+    int evicted = 0;
+    for (val file : files) {
+      if (file.getName().endsWith(VALIDATORS_SUFFIX)) {
+        // Evicted with their entry
+        continue;
+      }
+
+      if (file.lastModified() < cutoff) {
+        file.delete();
+        getValidatorsFile(file).delete();
+        evicted++;
+      }
+    }
+
+    if (evicted > 0) {
+      log.info("Evicted {} unused entries from HTTP cache '{}'", evicted, cacheDir);
+    }
+  }
+
+  /**
+   * Marks the entry as used so that it is not evicted.
+   */
+  private static void touch(File cacheFile) {
+    if (!cacheFile.setLastModified(System.currentTimeMillis())) {
+      log.debug("Could not touch '{}'", cacheFile);
+    }
+  }
+
+  private static File getValidatorsFile(File cacheFile) {
+    return new File(cacheFile.getPath() + VALIDATORS_SUFFIX);
+  }
+
+  private static void setRequestProperty(HttpURLConnection connection, String key, String value) {
+    if (!value.isEmpty()) {
+      connection.setRequestProperty(key, value);
+    }
+  }
+
+  private static boolean isHttp(URL url) {
+    return url.getProtocol().equals("http") || url.getProtocol().equals("https");
+  }
+
+  @SneakyThrows
+  private static File toFile(URL url) {
+    return new File(url.toURI());
+  }
+
+  /**
+   * One request slot, released at most once.
+   */
+  private class Permit {
+
+    private final AtomicBoolean held = new AtomicBoolean(true);
+
+    private Permit() {
+      requests.acquireUninterruptibly();
+    }
+
+    private void release() {
+      if (held.compareAndSet(true, false)) {
+        requests.release();
+      }
+    }
+
+  }
+
+}
@@ -18,17 +18,22 @@
 package org.icgc.dcc.repository.core.meta;
 
 import static org.icgc.dcc.common.core.util.stream.Collectors.toImmutableList;
+import static org.icgc.dcc.repository.core.http.RepositoryHttpClient.getClient;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.icgc.dcc.repository.core.http.RepositoryHttpClient;
+
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.Lists;
 
+import lombok.Cleanup;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -54,6 +59,11 @@ public class MetadataClient {
   @Getter
   private final String serverUrl;
 
+  /**
+   * Dependencies.
+   */
+  private final RepositoryHttpClient httpClient = getClient("metadata");
+
   public MetadataClient() {
     this(DEFAULT_SERVER_URL);
   }
@@ -73,7 +83,7 @@ public class MetadataClient {
   @SneakyThrows
   private Entity read(@NonNull String path) {
     try {
-      return MAPPER.readValue(resolveUrl(path), Entity.class);
+      return readValue(resolveUrl(path), Entity.class);
     } catch (FileNotFoundException e) {
       throw new EntityNotFoundException(e.getMessage());
     }
@@ -88,7 +98,7 @@ public class MetadataClient {
     try {
       while (!last) {
         val url = resolveUrl(path + (path.contains("?") ? "&" : "?") + "size=2000&page=" + pageNumber);
-        val result = MAPPER.readValue(url, ObjectNode.class);
+        val result = readValue(url, ObjectNode.class);
         last = result.path("last").asBoolean();
         List<Entity> page = MAPPER.convertValue(result.path("content"), new TypeReference<ArrayList<Entity>>() {});
 
@@ -104,6 +114,12 @@ public class MetadataClient {
     return results.stream().distinct().collect(toImmutableList());
   }
 
+  private <T> T readValue(URL url, Class<T> type) throws IOException {
+    @Cleanup
+    val inputStream = httpClient.open(url);
+    return MAPPER.readValue(inputStream, type);
+  }
+
   @SneakyThrows
   private URL resolveUrl(String path) {
     return new URL(serverUrl + "/entities" + path);
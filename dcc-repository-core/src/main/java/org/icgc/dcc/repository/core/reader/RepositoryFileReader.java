@@ -17,6 +17,8 @@
  */
 package org.icgc.dcc.repository.core.reader;
 
+import static org.icgc.dcc.repository.core.util.RepositoryFiles.ID_FIELD_NAME;
+
 import org.icgc.dcc.repository.core.model.RepositoryCollection;
 import org.icgc.dcc.repository.core.model.RepositoryFile;
 import org.icgc.dcc.repository.core.util.AbstractJongoComponent;
@@ -59,4 +61,13 @@ public class RepositoryFileReader extends AbstractJongoComponent {
     return collection.find().as(RepositoryFile.class);
   }
 
+  public Iterable<RepositoryFile> readOrderedById() {
+    log.info("Reading '{}' files ordered by '{}'...", collection.getName(), ID_FIELD_NAME);
+
+    // Ensure the sort is served by an index since in-memory sorts are capped by the server
+    createIndex(collection, ID_FIELD_NAME);
+
+    return collection.find().sort("{" + ID_FIELD_NAME + ": 1}").as(RepositoryFile.class);
+  }
+
 }
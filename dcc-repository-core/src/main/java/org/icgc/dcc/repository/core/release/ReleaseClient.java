@@ -19,15 +19,19 @@ package org.icgc.dcc.repository.core.release;
 
 import static org.icgc.dcc.common.core.json.Jackson.DEFAULT;
 import static org.icgc.dcc.common.core.util.Joiners.COMMA;
+import static org.icgc.dcc.repository.core.http.RepositoryHttpClient.getClient;
 
 import java.net.URL;
 import java.util.List;
 
+import org.icgc.dcc.repository.core.http.RepositoryHttpClient;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableList;
 
 import lombok.Builder;
+import lombok.Cleanup;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.Value;
@@ -49,6 +53,11 @@ public class ReleaseClient {
    */
   private final String url;
 
+  /**
+   * Dependencies.
+   */
+  private final RepositoryHttpClient httpClient = getClient("release");
+
   public ReleaseClient() {
     this(DEFAULT_RELEASE_URL);
   }
@@ -74,7 +83,9 @@ public class ReleaseClient {
     val indexType = "donor-text"; // Small and has fields exposed
     val donorUrl = url + "/" + indexType + "/_search?size=" + size + "&_source_includes=" + fields;
 
-    return DEFAULT.readValue(new URL(donorUrl), ObjectNode.class);
+    @Cleanup
+    val inputStream = httpClient.open(new URL(donorUrl));
+    return DEFAULT.readValue(inputStream, ObjectNode.class);
   }
 
   private static Donor createDonor(JsonNode hit) {
@@ -34,6 +34,7 @@ import org.jongo.MongoCursor;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableList;
+import com.mongodb.BasicDBObject;
 import com.mongodb.MongoClientURI;
 
 import lombok.NonNull;
@@ -90,6 +91,11 @@ public abstract class AbstractJongoComponent implements Closeable {
         formatCount(result.getN()), collection.getName());
   }
 
+  protected void createIndex(@NonNull MongoCollection collection, @NonNull String fieldName) {
+    log.info("Ensuring index on '{}' in collection '{}'", fieldName, collection.getName());
+    collection.getDBCollection().createIndex(new BasicDBObject(fieldName, 1));
+  }
+
   protected int eachDocument(@NonNull RepositoryCollection collection, @NonNull Consumer<ObjectNode> handler) {
     return eachDocument(collection.getId(), handler);
   }
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Futures.getUnchecked;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static lombok.AccessLevel.PRIVATE;
+
+import java.io.Closeable;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.val;
+
+/**
+ * Bounded iterators over work done on a pool of daemon threads, so that readers never hold more than a fixed number of
+ * pending results in memory.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class ConcurrentIterators {
+
+  /**
+   * Constants.
+   */
+  private static final long OFFER_TIMEOUT_SECONDS = 1;
+  private static final long IDLE_THREAD_SECONDS = 10;
+  private static final Object END_OF_SOURCE = new Object();
+
+  /**
+   * Writes the elements of a single source to a sink which blocks while the iterator is full.
+   */
+  @FunctionalInterface
+  public interface Producer<S, T> {
+
+    void produce(S source, Consumer<T> sink) throws Exception;
+
+  }
+
+  /**
+   * Applies {@code function} to up to {@code pending} sources at once on {@code concurrency} threads and returns the
+   * results in source order. Sources are only pulled as results are taken.
+   * <p>
+   * An iterator that is not exhausted leaves at most {@code pending} tasks behind, after which its threads time out.
+   */
+  public static <S, T> Iterator<T> transform(@NonNull String name, @NonNull Iterator<S> sources, int concurrency,
+      int pending, @NonNull Function<? super S, ? extends T> function) {
+    checkArgument(pending >= concurrency, "Pending %s must be at least the concurrency %s", pending, concurrency);
+    if (concurrency <= 1) {
+      return Iterators.transform(sources, function::apply);
+    }
+
+    return new OrderedIterator<S, T>(name, sources, concurrency, pending, function);
+  }
+
+  /**
+   * Runs {@code producer} for each of {@code sources} on {@code concurrency} threads and returns their elements as they
+   * arrive, interleaving sources. Producers block while {@code capacity} elements are waiting to be taken.
+   * <p>
+   * Producers stop at their next blocked write once the iterator is closed or is no longer reachable, so consumers that
+   * stop early do not leave threads parked forever.
+   */
+  public static <S, T> ProducerIterator<T> produce(@NonNull String name, @NonNull Collection<S> sources,
+      int concurrency, int capacity, @NonNull Producer<? super S, T> producer) {
+    return new ProducerIterator<T>(name, sources, Math.max(concurrency, 1), capacity, producer);
+  }
+
+  private static ThreadFactory newThreadFactory(String name) {
+    return new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build();
+  }
+
+  private static final class OrderedIterator<S, T> extends AbstractIterator<T> {
+
+    private final Iterator<S> sources;
+    private final int pending;
+    private final Function<? super S, ? extends T> function;
+    private final ThreadPoolExecutor executor;
+    private final Queue<Future<T>> window = new ArrayDeque<>();
+
+    private OrderedIterator(String name, Iterator<S> sources, int concurrency, int pending,
+        Function<? super S, ? extends T> function) {
+      this.sources = sources;
+      this.pending = pending;
+      this.function = function;
+      this.executor = new ThreadPoolExecutor(concurrency, concurrency, IDLE_THREAD_SECONDS, SECONDS,
+          new LinkedBlockingQueue<>(), newThreadFactory(name));
+      executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    protected T computeNext() {
+      while (window.size() < pending && sources.hasNext()) {
+        val source = sources.next();
+        window.add(executor.submit(() -> function.apply(source)));
+      }
+
+      if (window.isEmpty()) {
+        executor.shutdown();
+        return endOfData();
+      }
+
+      try {
+        return getUnchecked(window.remove());
+      } catch (RuntimeException e) {
+        executor.shutdownNow();
+        throw e;
+      }
+    }
+
+  }
+
+  public static final class ProducerIterator<T> extends AbstractIterator<T> implements Closeable {
+
+    private final Channel channel;
+    private final ExecutorService executor;
+    private final List<Future<?>> futures;
+    private int remainingSources;
+
+    private <S> ProducerIterator(String name, Collection<S> sources, int concurrency, int capacity,
+        Producer<? super S, T> producer) {
+      // Producers only see the channel, which holds this iterator weakly
+      this.channel = new Channel(new ArrayBlockingQueue<>(capacity), new WeakReference<>(this));
+      this.executor = Executors.newFixedThreadPool(concurrency, newThreadFactory(name));
+      this.remainingSources = sources.size();
+
+      val futures = ImmutableList.<Future<?>> builder();
+      for (val source : sources) {
+        val channel = this.channel;
+        futures.add(executor.submit(() -> channel.produce(producer, source)));
+      }
+      this.futures = futures.build();
+      executor.shutdown();
+    }
+
+    @Override
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    protected T computeNext() {
+      checkState(!channel.closed, "Iterator is closed");
+      while (remainingSources > 0) {
+        val element = channel.queue.take();
+        if (element != END_OF_SOURCE) {
+          return (T) element;
+        }
+
+        remainingSources--;
+        checkFailures(false);
+      }
+
+      // Every source has ended, so wait on any failure that has not surfaced yet
+      checkFailures(true);
+
+      return endOfData();
+    }
+
+    /**
+     * Stops the producers. Only needed when the iterator is not exhausted.
+     */
+    @Override
+    public void close() {
+      channel.closed = true;
+      executor.shutdownNow();
+    }
+
+    private void checkFailures(boolean wait) {
+      for (val future : futures) {
+        if (wait || future.isDone()) {
+          try {
+            getUnchecked(future);
+          } catch (RuntimeException e) {
+            // Unblock the remaining producers
+            close();
+            throw e;
+          }
+        }
+      }
+    }
+
+  }
+
+  private static final class Channel {
+
+    private final BlockingQueue<Object> queue;
+    private final WeakReference<?> owner;
+    private volatile boolean closed;
+
+    private Channel(BlockingQueue<Object> queue, WeakReference<?> owner) {
+      this.queue = queue;
+      this.owner = owner;
+    }
+
+    private <S, T> Void produce(Producer<? super S, T> producer, S source) throws Exception {
+      try {
+        if (!isAbandoned()) {
+          producer.produce(source, this::put);
+        }
+      } finally {
+        put(END_OF_SOURCE);
+      }
+
+      return null;
+    }
+
+    @SneakyThrows
+    private void put(Object element) {
+      while (!queue.offer(element, OFFER_TIMEOUT_SECONDS, SECONDS)) {
+        if (isAbandoned()) {
+          throw new CancellationException("Iterator was closed or abandoned");
+        }
+      }
+    }
+
+    private boolean isAbandoned() {
+      return closed || owner.get() == null;
+    }
+
+  }
+
+}
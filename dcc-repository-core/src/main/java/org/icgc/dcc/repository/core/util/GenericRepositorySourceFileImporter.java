@@ -18,9 +18,13 @@
 package org.icgc.dcc.repository.core.util;
 
 import static com.google.common.base.Stopwatch.createStarted;
-import static com.google.common.collect.Iterables.isEmpty;
+import static com.google.common.collect.Iterators.peekingIterator;
+import static com.google.common.collect.Iterators.transform;
 import static org.icgc.dcc.common.core.util.Formats.formatCount;
 
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.icgc.dcc.repository.core.RepositoryFileContext;
 import org.icgc.dcc.repository.core.RepositorySourceFileImporter;
 import org.icgc.dcc.repository.core.model.RepositoryFile;
@@ -59,28 +63,46 @@ public abstract class GenericRepositorySourceFileImporter implements RepositoryS
     val watch = createStarted();
 
     log.info("Reading '{}' files...", source);
-    val files = readFiles();
-    log.info("Finished '{}' reading files", source);
+    val files = peekingIterator(readFiles().iterator());
 
-    if (isEmpty(files)) {
+    // Only pulls the first file so the rest can be streamed
+    if (!files.hasNext()) {
       log.error("**** Files are empty! Reusing previous imported files");
       return;
     }
 
     log.info("Writing '{}' files...", source);
-    writeFiles(files);
+    val fileCount = new AtomicLong();
+    writeFiles(once(transform(files, file -> {
+      fileCount.incrementAndGet();
+      return file;
+    })));
     log.info("Finished '{}' writing files", source);
 
-    log.info("Imported {} '{}' files in {}.", formatCount(files), source, watch);
+    log.info("Imported {} '{}' files in {}.", formatCount(fileCount.get()), source, watch);
   }
 
+  /**
+   * Iterated exactly once, so implementations may return a lazy view over their source (e.g. {@code stream::iterator})
+   * rather than collecting the files into memory.
+   */
   protected abstract Iterable<RepositoryFile> readFiles();
 
+  /**
+   * Always staged regardless of {@link RepositoryFileContext#isStagedWrites()}: {@link #readFiles()} may stream from a
+   * remote source, and a failure part way through must leave the previously imported files in place rather than a
+   * cleared or partial collection.
+   */
   @SneakyThrows
   protected void writeFiles(Iterable<RepositoryFile> files) {
     @Cleanup
-    val writer = new RepositorySourceFileWriter(context.getMongoUri(), source);
+    val writer = new RepositorySourceFileWriter(context.getMongoUri(), source,
+        context.getWriteBatchSize(), context.getWriteConcurrency(), true);
     writer.write(files);
   }
 
+  private static Iterable<RepositoryFile> once(Iterator<RepositoryFile> files) {
+    return () -> files;
+  }
+
 }
@@ -32,6 +32,11 @@ import lombok.NonNull;
 @NoArgsConstructor(access = PRIVATE)
 public final class RepositoryFiles {
 
+  /**
+   * Mongo field name of {@link RepositoryFile#getId()} which is used to join files across sources.
+   */
+  public static final String ID_FIELD_NAME = "id";
+
   public static Comparator<? super RepositoryFile> inPCAWGOrder() {
     return (f1, f2) -> isPCAWGFile(f1) ? -1 : 0;
   }
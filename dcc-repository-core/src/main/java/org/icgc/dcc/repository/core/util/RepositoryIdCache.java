@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.base.Stopwatch.createStarted;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.primitives.Bytes;
+
+import lombok.NonNull;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persistent cache of ids issued by the id service.
+ * <p>
+ * Ids never change once issued so entries are never invalidated. The cache is a tab separated file of
+ * {@code type, submitted id, project code, id} that is read into memory when opened and appended to as new ids are
+ * resolved. Misses are not cached.
+ * <p>
+ * Each line is written with its terminating newline last, so only newline terminated lines are complete. An
+ * unterminated trailing line left by an interrupted run is ignored and truncated before appending resumes.
+ */
+@Slf4j
+public class RepositoryIdCache implements Closeable {
+
+  /**
+   * Constants.
+   */
+  private static final char SEPARATOR = '\t';
+  private static final Joiner JOINER = Joiner.on(SEPARATOR);
+  private static final Splitter SPLITTER = Splitter.on(SEPARATOR);
+  private static final Splitter LINE_SPLITTER = Splitter.on('\n').omitEmptyStrings();
+  private static final int FIELD_COUNT = 4;
+
+  public enum IdType {
+    DONOR, SPECIMEN, SAMPLE, FILE;
+  }
+
+  /**
+   * Configuration.
+   */
+  @NonNull
+  private final File file;
+
+  /**
+   * State.
+   */
+  private final Map<String, String> ids = new ConcurrentHashMap<>();
+  private final Writer writer;
+
+  public RepositoryIdCache(@NonNull File file) throws IOException {
+    this.file = file;
+    load();
+    this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), UTF_8));
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    writer.close();
+  }
+
+  /**
+   * @param projectCode the project of the submitted id, or {@code null} for file ids which are global
+   * @param resolver called when the id is not cached
+   */
+  public String get(@NonNull IdType type, @NonNull String submittedId, String projectCode,
+      @NonNull Supplier<String> resolver) {
+    if (!isCacheable(submittedId) || projectCode != null && !isCacheable(projectCode)) {
+      return resolver.get();
+    }
+
+    val key = formatKey(type, submittedId, projectCode);
+    val cached = ids.get(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    val id = resolver.get();
+    if (id != null && ids.putIfAbsent(key, id) == null) {
+      append(key, id);
+    }
+
+    return id;
+  }
+
+  private void load() throws IOException {
+    if (!file.exists()) {
+      log.info("Creating id cache '{}'...", file);
+      return;
+    }
+
+    val watch = createStarted();
+    log.info("Loading id cache '{}'...", file);
+    val bytes = Files.readAllBytes(file.toPath());
+    val end = Bytes.lastIndexOf(bytes, (byte) '\n') + 1;
+    for (val line : LINE_SPLITTER.split(new String(bytes, 0, end, UTF_8))) {
+      val fields = SPLITTER.splitToList(line);
+      if (fields.size() != FIELD_COUNT) {
+        log.warn("Skipping malformed id cache line: '{}'", line);
+        continue;
+      }
+
+      ids.put(JOINER.join(fields.subList(0, FIELD_COUNT - 1)), fields.get(FIELD_COUNT - 1));
+    }
+
+    if (end < bytes.length) {
+      // Partial line from an interrupted run whose id may itself be cut short
+      log.warn("Truncating unterminated id cache line: '{}'", new String(bytes, end, bytes.length - end, UTF_8));
+      truncate(end);
+    }
+
+    log.info("Loaded {} cached ids in {}", formatCount(ids.size()), watch);
+  }
+
+  private void truncate(long size) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), WRITE)) {
+      channel.truncate(size);
+    }
+  }
+
+  private synchronized void append(String key, String id) {
+    try {
+      writer.write(key);
+      writer.write(SEPARATOR);
+      writer.write(id);
+      writer.write('\n');
+
+      // Written per id so that an interrupted run keeps what it resolved
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error appending to id cache " + file, e);
+    }
+  }
+
+  private static String formatKey(IdType type, String submittedId, String projectCode) {
+    return JOINER.join(type, submittedId, projectCode == null ? "" : projectCode);
+  }
+
+  private static boolean isCacheable(String value) {
+    // Values that would break the line and field structure of the file are always resolved
+    return value.indexOf(SEPARATOR) < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0;
+  }
+
+}
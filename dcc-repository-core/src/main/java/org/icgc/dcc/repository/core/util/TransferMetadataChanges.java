@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Repository relative paths changed between the last processed commit and the current head of a
+ * {@link TransferMetadataRepository}.
+ */
+@Value
+public class TransferMetadataChanges {
+
+  /**
+   * The last processed commit, or {@code null} if there is none to compare against and every path must be read.
+   */
+  String fromCommit;
+  @NonNull
+  String toCommit;
+
+  @NonNull
+  Set<String> addedPaths;
+  @NonNull
+  Set<String> modifiedPaths;
+  @NonNull
+  Set<String> deletedPaths;
+
+  public static TransferMetadataChanges allPaths(@NonNull String toCommit) {
+    return new TransferMetadataChanges(null, toCommit, ImmutableSet.of(), ImmutableSet.of(), ImmutableSet.of());
+  }
+
+  public boolean isFull() {
+    return fromCommit == null;
+  }
+
+  public boolean isChanged(@NonNull String path) {
+    return isFull() || addedPaths.contains(path) || modifiedPaths.contains(path) || deletedPaths.contains(path);
+  }
+
+}
@@ -18,9 +18,12 @@
 package org.icgc.dcc.repository.core.util;
 
 import static com.google.common.base.Preconditions.checkState;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.jgit.lib.Constants.HEAD;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.CanceledException;
@@ -33,7 +36,11 @@ import org.eclipse.jgit.api.errors.RefNotAdvertisedException;
 import org.eclipse.jgit.api.errors.RefNotFoundException;
 import org.eclipse.jgit.api.errors.TransportException;
 import org.eclipse.jgit.api.errors.WrongRepositoryStateException;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
 
+import com.google.common.collect.ImmutableSet;
+
+import lombok.Cleanup;
 import lombok.NonNull;
 import lombok.Value;
 import lombok.val;
@@ -50,19 +57,114 @@ public class TransferMetadataRepository {
   private final String repoUrl;
   @NonNull
   private final File repoDir;
-  private final boolean forceClone; // To be safe on problematic repos such as EGA
+  private final boolean forceClone; // Re-clone when pulling fails, to be safe on problematic repos such as EGA
 
-  public void update() throws GitAPIException, IOException {
-    if (forceClone && repoDir.exists()) {
-      log.info("forceClone is set to true. Deleting {}...", repoDir);
-      delete(repoDir);
+  /**
+   * Brings the checkout in-sync with the remote.
+   * 
+   * @return the paths changed since the commit last recorded with {@link #markProcessed}
+   */
+  public TransferMetadataChanges update() throws GitAPIException, IOException {
+    if (!repoDir.exists()) {
+      gitClone();
+    } else if (forceClone) {
+      try {
+        gitPull();
+      } catch (Exception e) {
+        log.warn("Could not pull '{}' ({}). Deleting {} and cloning...", repoUrl, e.getMessage(), repoDir);
+        delete(repoDir);
+        gitClone();
+      }
+    } else {
+      gitPull();
     }
 
-    if (repoDir.exists()) {
-      gitPull();
-    } else {
-      gitClone();
+    return resolveChanges();
+  }
+
+  /**
+   * Records the head of {@code changes} as processed so that the next {@link #update} only reports later changes.
+   */
+  public void markProcessed(@NonNull TransferMetadataChanges changes) throws IOException {
+    Files.write(getProcessedCommitFile().toPath(), changes.getToCommit().getBytes(UTF_8));
+    log.info("Marked commit {} of '{}' as processed", changes.getToCommit(), repoUrl);
+  }
+
+  /**
+   * @return a sibling of the checkout, so that the record survives re-cloning
+   */
+  public File getStateFile(@NonNull String suffix) {
+    return new File(repoDir.getAbsoluteFile().getParentFile(), repoDir.getName() + "." + suffix);
+  }
+
+  private TransferMetadataChanges resolveChanges() throws GitAPIException, IOException {
+    @Cleanup
+    val git = Git.open(repoDir);
+    val repository = git.getRepository();
+    val head = repository.resolve(HEAD).name();
+
+    val processedCommit = readProcessedCommit();
+    if (processedCommit == null) {
+      log.info("No processed commit recorded for '{}'. Reading all paths", repoUrl);
+      return TransferMetadataChanges.allPaths(head);
+    }
+
+    @Cleanup
+    val reader = repository.newObjectReader();
+    val oldTree = new CanonicalTreeParser();
+    val newTree = new CanonicalTreeParser();
+    try {
+      oldTree.reset(reader, repository.resolve(processedCommit + "^{tree}"));
+      newTree.reset(reader, repository.resolve(head + "^{tree}"));
+    } catch (Exception e) {
+      // E.g. history was rewritten upstream
+      log.warn("Could not resolve processed commit {} of '{}' ({}). Reading all paths", processedCommit, repoUrl,
+          e.getMessage());
+      return TransferMetadataChanges.allPaths(head);
+    }
+
+    val addedPaths = ImmutableSet.<String> builder();
+    val modifiedPaths = ImmutableSet.<String> builder();
+    val deletedPaths = ImmutableSet.<String> builder();
+    for (val entry : git.diff().setOldTree(oldTree).setNewTree(newTree).setShowNameAndStatusOnly(true).call()) {
+      switch (entry.getChangeType()) {
+      case ADD:
+      case COPY:
+        addedPaths.add(entry.getNewPath());
+        break;
+      case MODIFY:
+        modifiedPaths.add(entry.getNewPath());
+        break;
+      case DELETE:
+        deletedPaths.add(entry.getOldPath());
+        break;
+      case RENAME:
+        deletedPaths.add(entry.getOldPath());
+        addedPaths.add(entry.getNewPath());
+        break;
+      }
     }
+
+    val changes = new TransferMetadataChanges(processedCommit, head,
+        addedPaths.build(), modifiedPaths.build(), deletedPaths.build());
+    log.info("Resolved {} added, {} modified and {} deleted paths of '{}' since commit {}",
+        changes.getAddedPaths().size(), changes.getModifiedPaths().size(), changes.getDeletedPaths().size(), repoUrl,
+        processedCommit);
+
+    return changes;
+  }
+
+  private String readProcessedCommit() throws IOException {
+    val file = getProcessedCommitFile();
+    if (!file.exists()) {
+      return null;
+    }
+
+    return new String(Files.readAllBytes(file.toPath()), UTF_8).trim();
+  }
+
+  private File getProcessedCommitFile() {
+    return getStateFile("processed");
   }
 
   private void gitClone() throws GitAPIException, InvalidRemoteException, TransportException {
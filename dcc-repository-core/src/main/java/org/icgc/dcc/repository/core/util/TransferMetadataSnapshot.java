@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static com.fasterxml.jackson.core.JsonGenerator.Feature.AUTO_CLOSE_TARGET;
+import static com.fasterxml.jackson.core.JsonParser.Feature.AUTO_CLOSE_SOURCE;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.Cleanup;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persisted parse results of the files of a {@link TransferMetadataRepository} keyed by repository relative path.
+ * <p>
+ * Entries of paths changed since the last processed commit are discarded on load so only those files are parsed again.
+ * Entries of paths not requested in a run (i.e. deleted or no longer matched) are dropped on save. Thread-safe.
+ */
+@Slf4j
+public class TransferMetadataSnapshot {
+
+  /**
+   * Constants.
+   */
+  private static final ObjectMapper MAPPER = new ObjectMapper()
+      .configure(AUTO_CLOSE_SOURCE, false)
+      .configure(AUTO_CLOSE_TARGET, false);
+
+  /**
+   * Configuration.
+   */
+  @NonNull
+  private final File file;
+
+  /**
+   * State.
+   */
+  private final Map<String, ObjectNode> previous;
+  private final Map<String, ObjectNode> current = new ConcurrentHashMap<>();
+
+  private TransferMetadataSnapshot(@NonNull File file, @NonNull Map<String, ObjectNode> previous) {
+    this.file = file;
+    this.previous = previous;
+  }
+
+  public static TransferMetadataSnapshot load(@NonNull File file, @NonNull TransferMetadataChanges changes) {
+    val previous = new ConcurrentHashMap<String, ObjectNode>();
+    if (!changes.isFull() && file.exists()) {
+      read(file, previous);
+      previous.keySet().removeIf(changes::isChanged);
+      log.info("Loaded {} unchanged entries from snapshot '{}'", formatCount(previous.size()), file);
+    }
+
+    return new TransferMetadataSnapshot(file, previous);
+  }
+
+  /**
+   * @return the snapshot entry of {@code path} if it is unchanged, otherwise the result of {@code parser}
+   */
+  public ObjectNode get(@NonNull String path, @NonNull Supplier<ObjectNode> parser) {
+    val contents = previous.get(path);
+    val result = contents != null ? contents : parser.get();
+    current.put(path, result);
+
+    return result;
+  }
+
+  public Set<String> getPaths() {
+    return current.keySet();
+  }
+
+  @SneakyThrows
+  public void save() {
+    // Replace atomically so that an interrupted save never leaves a truncated snapshot
+    val tempFile = new File(file.getPath() + ".tmp");
+    write(tempFile, current);
+    Files.move(tempFile.toPath(), file.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+    log.info("Saved {} entries to snapshot '{}'", formatCount(current.size()), file);
+  }
+
+  @SneakyThrows
+  private static void read(File file, Map<String, ObjectNode> entries) {
+    @Cleanup
+    val inputStream = new BufferedInputStream(new FileInputStream(file));
+    @Cleanup
+    val values = MAPPER.reader(ObjectNode.class).<ObjectNode> readValues(inputStream);
+    while (values.hasNext()) {
+      val entry = values.next();
+      entries.put(entry.get("path").textValue(), (ObjectNode) entry.get("contents"));
+    }
+  }
+
+  @SneakyThrows
+  private static void write(File file, Map<String, ObjectNode> entries) {
+    @Cleanup
+    val outputStream = new BufferedOutputStream(new FileOutputStream(file));
+    for (val entry : entries.entrySet()) {
+      val line = MAPPER.createObjectNode();
+      line.put("path", entry.getKey());
+      line.set("contents", entry.getValue());
+
+      MAPPER.writeValue(outputStream, line);
+      outputStream.write('\n');
+    }
+  }
+
+}
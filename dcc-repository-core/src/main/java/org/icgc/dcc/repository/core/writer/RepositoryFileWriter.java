@@ -17,30 +17,60 @@
  */
 package org.icgc.dcc.repository.core.writer;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Stopwatch.createStarted;
+import static com.google.common.collect.Iterables.partition;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.icgc.dcc.common.core.util.Formats.formatCount;
 import static org.icgc.dcc.repository.core.model.RepositoryCollection.FILE;
+import static org.icgc.dcc.repository.core.util.RepositoryFiles.ID_FIELD_NAME;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.icgc.dcc.repository.core.model.RepositoryCollection;
 import org.icgc.dcc.repository.core.model.RepositoryFile;
 import org.icgc.dcc.repository.core.util.AbstractJongoWriter;
 import org.jongo.MongoCollection;
 
+import com.google.common.collect.Lists;
 import com.mongodb.MongoClientURI;
 
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.SneakyThrows;
 import lombok.val;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class RepositoryFileWriter extends AbstractJongoWriter<Iterable<RepositoryFile>> {
 
+  /**
+   * Constants.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 10000;
+  public static final int DEFAULT_WRITE_CONCURRENCY = 1;
+  public static final String STAGING_COLLECTION_SUFFIX = "_tmp";
+
   /**
    * Configuration.
    */
   @Getter
   @NonNull
   private final RepositoryCollection fileCollection;
+  @Getter
+  private final int batchSize;
+  @Getter
+  private final int writeConcurrency;
+  @Getter
+  private final boolean staged;
 
   /**
    * Dependencies.
@@ -53,36 +83,118 @@ public class RepositoryFileWriter extends AbstractJongoWriter<Iterable<Repositor
   }
 
   public RepositoryFileWriter(MongoClientURI mongoUri, @NonNull RepositoryCollection fileCollection) {
+    this(mongoUri, fileCollection, DEFAULT_BATCH_SIZE, DEFAULT_WRITE_CONCURRENCY, false);
+  }
+
+  /**
+   * @param staged when {@code true}, files are written to a staging collection which then atomically replaces the
+   * target collection so that readers never observe a partially written collection
+   */
+  public RepositoryFileWriter(MongoClientURI mongoUri, @NonNull RepositoryCollection fileCollection, int batchSize,
+      int writeConcurrency, boolean staged) {
     super(mongoUri);
+    checkArgument(batchSize > 0, "Batch size must be positive: %s", batchSize);
+    checkArgument(writeConcurrency > 0, "Write concurrency must be positive: %s", writeConcurrency);
     this.fileCollection = fileCollection;
+    this.batchSize = batchSize;
+    this.writeConcurrency = writeConcurrency;
+    this.staged = staged;
     this.collection = getCollection(fileCollection);
   }
 
   @Override
   public void write(@NonNull Iterable<RepositoryFile> files) {
-    log.info("Clearing '{}' documents...", collection.getName());
-    clearFiles();
+    if (staged) {
+      writeStaged(files);
+    } else {
+      log.info("Clearing '{}' documents...", collection.getName());
+      clearFiles();
 
-    log.info("Writing {} '{}' documents...", formatCount(files), collection.getName());
-    int writeCount = 0;
-    for (val file : files) {
-      saveFile(file);
+      writeFiles(collection, files);
+    }
+  }
+
+  public void clearFiles() {
+    clearDocuments(fileCollection);
+  }
+
+  private void writeStaged(Iterable<RepositoryFile> files) {
+    val staging = getCollection(collection.getName() + STAGING_COLLECTION_SUFFIX);
 
-      writeCount++;
-      if (writeCount % 10000 == 0) {
-        log.info("Wrote {} '{}' documents", formatCount(writeCount), collection.getName());
+    log.info("Dropping staging collection '{}' of any previous run...", staging.getName());
+    staging.drop();
+
+    writeFiles(staging, files);
+
+    // Built once after loading rather than maintained per document
+    createIndex(staging, ID_FIELD_NAME);
+
+    log.info("Replacing '{}' with staging collection '{}'...", collection.getName(), staging.getName());
+    staging.getDBCollection().rename(collection.getName(), true);
+    log.info("Finished replacing '{}'", collection.getName());
+  }
+
+  private void writeFiles(MongoCollection target, Iterable<RepositoryFile> files) {
+    log.info("Writing '{}' documents in batches of {} using {} thread(s)...",
+        target.getName(), formatCount(batchSize), writeConcurrency);
+    val watch = createStarted();
+    val writeCount = new AtomicLong();
+    if (writeConcurrency == 1) {
+      for (val batch : partition(files, batchSize)) {
+        writeBatch(target, batch, writeCount);
       }
+    } else {
+      writeBatchesConcurrently(target, files, writeCount);
     }
 
-    log.info("Finished writing {} '{}' documents", formatCount(writeCount), collection.getName());
+    log.info("Finished writing {} '{}' documents in {}", formatCount(writeCount.get()), target.getName(), watch);
   }
 
-  public void clearFiles() {
-    clearDocuments(fileCollection);
+  @SneakyThrows
+  private void writeBatchesConcurrently(MongoCollection target, Iterable<RepositoryFile> files,
+      AtomicLong writeCount) {
+    val executor = createExecutor();
+    val results = Lists.<Future<?>> newArrayList();
+    try {
+      for (val batch : partition(files, batchSize)) {
+        results.add(executor.submit(() -> writeBatch(target, batch, writeCount)));
+      }
+
+      // Propagate the first failure, if any
+      for (val result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdownNow();
+      executor.awaitTermination(1, SECONDS);
+    }
+  }
+
+  private void writeBatch(MongoCollection target, List<RepositoryFile> files, AtomicLong writeCount) {
+    val watch = createStarted();
+
+    // Unordered since the collection is empty and there is nothing to conflict with
+    val bulk = target.getDBCollection().initializeUnorderedBulkOperation();
+    val marshaller = jongo.getMapper().getMarshaller();
+    for (val file : files) {
+      bulk.insert(marshaller.marshall(file).toDBObject());
+    }
+
+    val result = bulk.execute();
+    checkState(result.getInsertedCount() == files.size(), "Expected to insert %s '%s' documents but inserted %s",
+        files.size(), target.getName(), result.getInsertedCount());
+
+    val total = writeCount.addAndGet(files.size());
+    val seconds = Math.max(watch.elapsed(MILLISECONDS), 1) / 1000.0;
+    log.info("Wrote batch of {} '{}' documents in {} ({} docs/s). Total: {}",
+        formatCount(files.size()), target.getName(), watch, formatCount((long) (files.size() / seconds)),
+        formatCount(total));
   }
 
-  protected void saveFile(RepositoryFile file) {
-    collection.save(file);
+  private ExecutorService createExecutor() {
+    // Bound the number of pending batches held in memory by running overflow on the submitting thread
+    return new ThreadPoolExecutor(writeConcurrency, writeConcurrency, 0L, SECONDS,
+        new ArrayBlockingQueue<>(writeConcurrency), new CallerRunsPolicy());
   }
 
 }
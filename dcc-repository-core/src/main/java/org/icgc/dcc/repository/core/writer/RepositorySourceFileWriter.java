@@ -35,7 +35,12 @@ public class RepositorySourceFileWriter extends RepositoryFileWriter {
   private final RepositorySource source;
 
   public RepositorySourceFileWriter(MongoClientURI mongoUri, RepositorySource source) {
-    super(mongoUri, RepositoryCollection.forSource(source));
+    this(mongoUri, source, DEFAULT_BATCH_SIZE, DEFAULT_WRITE_CONCURRENCY, false);
+  }
+
+  public RepositorySourceFileWriter(MongoClientURI mongoUri, RepositorySource source, int batchSize,
+      int writeConcurrency, boolean staged) {
+    super(mongoUri, RepositoryCollection.forSource(source), batchSize, writeConcurrency, staged);
     this.source = source;
   }
 
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.http;
+
+import static com.google.common.net.HttpHeaders.ACCEPT_ENCODING;
+import static com.google.common.net.HttpHeaders.CONTENT_ENCODING;
+import static com.google.common.net.HttpHeaders.ETAG;
+import static com.google.common.net.HttpHeaders.IF_NONE_MATCH;
+import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
+import static java.net.HttpURLConnection.HTTP_OK;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.DAYS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import lombok.Cleanup;
+import lombok.val;
+
+public class RepositoryHttpClientTest {
+
+  /**
+   * Constants.
+   */
+  private static final String BODY = "{\"donors\":[]}";
+  private static final String VERSION = "\"v1\"";
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  /**
+   * State.
+   */
+  private final AtomicInteger transfers = new AtomicInteger();
+  private HttpServer server;
+  private File cacheDir;
+  private RepositoryHttpClient client;
+
+  @Before
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/versioned", exchange -> respond(exchange, true));
+    server.createContext("/unversioned", exchange -> respond(exchange, false));
+    server.createContext("/missing", exchange -> {
+      exchange.sendResponseHeaders(HTTP_NOT_FOUND, -1);
+      exchange.close();
+    });
+    server.start();
+
+    cacheDir = tmp.newFolder();
+    client = new RepositoryHttpClient(cacheDir, 2);
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  public void testOpenRevalidatesCachedResponse() throws IOException {
+    assertThat(read(url("/versioned"))).isEqualTo(BODY);
+    assertThat(read(url("/versioned"))).isEqualTo(BODY);
+
+    // Second read was answered with 304 from the cache
+    assertThat(transfers.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testOpenStreamsUnversionedResponse() throws IOException {
+    assertThat(read(url("/unversioned"))).isEqualTo(BODY);
+    assertThat(read(url("/unversioned"))).isEqualTo(BODY);
+
+    assertThat(transfers.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testDownload() throws IOException {
+    val file = client.download(url("/versioned"));
+
+    assertThat(file).hasContent(BODY);
+    assertThat(client.download(url("/versioned"))).isEqualTo(file);
+    assertThat(transfers.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testEvictUnusedEntries() throws IOException {
+    val file = client.download(url("/versioned"));
+    val used = new File(cacheDir, "used");
+    Files.touch(used);
+
+    file.setLastModified(System.currentTimeMillis() - DAYS.toMillis(2));
+    RepositoryHttpClient.evict(cacheDir, DAYS.toMillis(1));
+
+    // Entry and its validators are gone, so the next download transfers again
+    assertThat(cacheDir.listFiles()).containsOnly(used);
+    client.download(url("/versioned"));
+    assertThat(transfers.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testRevalidationKeepsEntry() throws IOException {
+    val file = client.download(url("/versioned"));
+
+    file.setLastModified(System.currentTimeMillis() - DAYS.toMillis(2));
+    client.download(url("/versioned"));
+    RepositoryHttpClient.evict(cacheDir, DAYS.toMillis(1));
+
+    assertThat(file).exists();
+    assertThat(transfers.get()).isEqualTo(1);
+  }
+
+  @Test(expected = FileNotFoundException.class)
+  public void testOpenMissing() throws IOException {
+    read(url("/missing"));
+  }
+
+  private void respond(HttpExchange exchange, boolean versioned) throws IOException {
+    if (versioned && VERSION.equals(exchange.getRequestHeaders().getFirst(IF_NONE_MATCH))) {
+      exchange.sendResponseHeaders(HTTP_NOT_MODIFIED, -1);
+      exchange.close();
+      return;
+    }
+
+    if (versioned) {
+      exchange.getResponseHeaders().set(ETAG, VERSION);
+    }
+
+    // Always compress when asked to exercise decoding
+    val gzip = String.valueOf(exchange.getRequestHeaders().getFirst(ACCEPT_ENCODING)).contains("gzip");
+    val body = gzip ? compress(BODY) : BODY.getBytes(UTF_8);
+    if (gzip) {
+      exchange.getResponseHeaders().set(CONTENT_ENCODING, "gzip");
+    }
+
+    transfers.incrementAndGet();
+    exchange.sendResponseHeaders(HTTP_OK, body.length);
+    exchange.getResponseBody().write(body);
+    exchange.close();
+  }
+
+  private String read(URL url) throws IOException {
+    @Cleanup
+    InputStream inputStream = client.open(url);
+    return new String(ByteStreams.toByteArray(inputStream), UTF_8);
+  }
+
+  private URL url(String path) throws IOException {
+    return new URL("http://localhost:" + server.getAddress().getPort() + path);
+  }
+
+  private static byte[] compress(String text) throws IOException {
+    val bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+      gzip.write(text.getBytes(UTF_8));
+    }
+
+    return bytes.toByteArray();
+  }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.icgc.dcc.repository.core.util.ConcurrentIterators.produce;
+import static org.icgc.dcc.repository.core.util.ConcurrentIterators.transform;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.icgc.dcc.repository.core.util.ConcurrentIterators.ProducerIterator;
+import org.junit.Test;
+
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Range;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import lombok.val;
+
+public class ConcurrentIteratorsTest {
+
+  private static final List<Integer> SOURCES = ContiguousSet.create(Range.closed(1, 100), DiscreteDomain.integers())
+      .asList();
+
+  @Test
+  public void testTransformKeepsSourceOrder() {
+    val results = transform("test", SOURCES.iterator(), 4, 8, i -> {
+      // Later sources finish first
+      sleep(100 - i);
+      return i * 2;
+    });
+
+    assertThat(ImmutableList.copyOf(results)).containsExactlyElementsOf(Lists.transform(SOURCES, i -> i * 2));
+  }
+
+  @Test(expected = UncheckedExecutionException.class)
+  public void testTransformFailure() {
+    ImmutableList.copyOf(transform("test", SOURCES.iterator(), 4, 8, i -> {
+      if (i == 50) {
+        throw new IllegalStateException();
+      }
+      return i;
+    }));
+  }
+
+  @Test
+  public void testProduce() {
+    val results = produce("test", SOURCES, 4, 2, (i, sink) -> {
+      for (int j = 0; j < i; j++) {
+        sink.accept(i);
+      }
+    });
+
+    assertThat(ImmutableList.copyOf(results)).hasSize(100 * 101 / 2);
+  }
+
+  @Test(expected = UncheckedExecutionException.class)
+  public void testProduceFailure() {
+    ImmutableList.copyOf(produce("test", SOURCES, 4, 2, (i, sink) -> {
+      sink.accept(i);
+      if (i == 50) {
+        throw new IllegalStateException();
+      }
+    }));
+  }
+
+  @Test
+  public void testCloseStopsProducers() throws InterruptedException {
+    val started = new CountDownLatch(2);
+    val stopped = new CountDownLatch(2);
+    val results = produceForever(started, stopped);
+
+    // Both producers are blocked on the full iterator
+    assertThat(results.next()).isNotNull();
+    started.await();
+    results.close();
+
+    assertThat(stopped.await(10, SECONDS)).isTrue();
+  }
+
+  @Test
+  public void testAbandonedStopsProducers() throws InterruptedException {
+    val started = new CountDownLatch(2);
+    val stopped = new CountDownLatch(2);
+    assertThat(produceForever(started, stopped).next()).isNotNull();
+    started.await();
+
+    // Producers only notice once the unreachable iterator is collected
+    for (int i = 0; i < 10 && stopped.getCount() > 0; i++) {
+      System.gc();
+      stopped.await(1, SECONDS);
+    }
+
+    assertThat(stopped.getCount()).isZero();
+  }
+
+  private static ProducerIterator<Object> produceForever(CountDownLatch started, CountDownLatch stopped) {
+    return produce("test", ImmutableList.of(1, 2), 2, 1, (i, sink) -> {
+      started.countDown();
+      try {
+        while (true) {
+          sink.accept(i);
+        }
+      } finally {
+        stopped.countDown();
+      }
+    });
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.icgc.dcc.repository.core.util.RepositoryIdCache.IdType.DONOR;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import lombok.val;
+
+public class RepositoryIdCacheTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  /**
+   * State.
+   */
+  private final AtomicInteger resolutions = new AtomicInteger();
+
+  @Test
+  public void testReopen() throws IOException {
+    val file = tmp.newFile();
+    try (RepositoryIdCache cache = new RepositoryIdCache(file)) {
+      assertThat(get(cache, "D1", "DO1")).isEqualTo("DO1");
+    }
+
+    try (RepositoryIdCache cache = new RepositoryIdCache(file)) {
+      assertThat(get(cache, "D1", "other")).isEqualTo("DO1");
+    }
+
+    assertThat(resolutions.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testTruncatedLine() throws IOException {
+    // Interrupted inside the id field, which still leaves four fields
+    val file = write("DONOR\tD1\tPRJ\tDO12\nDONOR\tD2\tPRJ\tDO3");
+
+    try (RepositoryIdCache cache = new RepositoryIdCache(file)) {
+      assertThat(get(cache, "D1", "other")).isEqualTo("DO12");
+      assertThat(get(cache, "D2", "DO34")).isEqualTo("DO34");
+    }
+
+    assertThat(resolutions.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testAppendAfterUnterminatedLine() throws IOException {
+    val file = write("DONOR\tD1\tPRJ\tDO1\nDONOR\tD2");
+
+    try (RepositoryIdCache cache = new RepositoryIdCache(file)) {
+      get(cache, "D3", "DO3");
+    }
+
+    assertThat(read(file)).isEqualTo("DONOR\tD1\tPRJ\tDO1\nDONOR\tD3\tPRJ\tDO3\n");
+    try (RepositoryIdCache cache = new RepositoryIdCache(file)) {
+      assertThat(get(cache, "D1", "other")).isEqualTo("DO1");
+      assertThat(get(cache, "D3", "other")).isEqualTo("DO3");
+    }
+  }
+
+  private String get(RepositoryIdCache cache, String submittedId, String id) {
+    return cache.get(DONOR, submittedId, "PRJ", () -> {
+      resolutions.incrementAndGet();
+      return id;
+    });
+  }
+
+  private File write(String contents) throws IOException {
+    val file = tmp.newFile();
+    Files.write(file.toPath(), contents.getBytes(UTF_8));
+
+    return file;
+  }
+
+  private static String read(File file) throws IOException {
+    return new String(Files.readAllBytes(file.toPath()), UTF_8);
+  }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import lombok.val;
+
+public class TransferMetadataRepositoryTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  /**
+   * State.
+   */
+  private Git remote;
+  private TransferMetadataRepository repository;
+
+  @Before
+  public void setUp() throws Exception {
+    remote = Git.init().setDirectory(tmp.newFolder("remote")).call();
+    write("kept.json", "kept");
+    write("modified.json", "before");
+    write("deleted.json", "deleted");
+    write("renamed.json", "renamed");
+    commit();
+
+    val repoDir = new File(tmp.getRoot(), "checkout");
+    repository = new TransferMetadataRepository(getRemoteDir().toURI().toString(), repoDir, false);
+  }
+
+  @After
+  public void tearDown() {
+    remote.close();
+  }
+
+  @Test
+  public void testFirstUpdateReadsAllPaths() throws Exception {
+    val changes = repository.update();
+
+    assertThat(changes.isFull()).isTrue();
+    assertThat(changes.isChanged("kept.json")).isTrue();
+  }
+
+  @Test
+  public void testUpdateResolvesChanges() throws Exception {
+    repository.markProcessed(repository.update());
+
+    write("added.json", "added");
+    write("modified.json", "after");
+    remote.rm().addFilepattern("deleted.json").call();
+    rename("renamed.json", "moved.json");
+    commit();
+
+    val changes = repository.update();
+
+    assertThat(changes.isFull()).isFalse();
+    assertThat(changes.getAddedPaths()).containsOnly("added.json", "moved.json");
+    assertThat(changes.getModifiedPaths()).containsOnly("modified.json");
+    assertThat(changes.getDeletedPaths()).containsOnly("deleted.json", "renamed.json");
+    assertThat(changes.isChanged("kept.json")).isFalse();
+  }
+
+  @Test
+  public void testUpdateWithoutChanges() throws Exception {
+    val processed = repository.update();
+    repository.markProcessed(processed);
+
+    val changes = repository.update();
+
+    assertThat(changes.isFull()).isFalse();
+    assertThat(changes.getFromCommit()).isEqualTo(processed.getToCommit());
+    assertThat(changes.isChanged("modified.json")).isFalse();
+  }
+
+  @Test
+  public void testUnresolvableProcessedCommit() throws Exception {
+    repository.update();
+
+    // E.g. history was rewritten upstream
+    Files.write(repository.getStateFile("processed").toPath(),
+        "0123456789012345678901234567890123456789".getBytes(UTF_8));
+
+    val changes = repository.update();
+
+    assertThat(changes.isFull()).isTrue();
+    assertThat(changes.isChanged("kept.json")).isTrue();
+  }
+
+  private void write(String path, String contents) throws IOException, GitAPIException {
+    Files.write(new File(getRemoteDir(), path).toPath(), contents.getBytes(UTF_8));
+    remote.add().addFilepattern(path).call();
+  }
+
+  private void rename(String oldPath, String newPath) throws IOException, GitAPIException {
+    Files.move(new File(getRemoteDir(), oldPath).toPath(), new File(getRemoteDir(), newPath).toPath());
+    remote.rm().addFilepattern(oldPath).call();
+    remote.add().addFilepattern(newPath).call();
+  }
+
+  private void commit() throws GitAPIException {
+    remote.commit().setMessage("Update").call();
+  }
+
+  private File getRemoteDir() {
+    return remote.getRepository().getWorkTree();
+  }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableSet;
+
+import lombok.val;
+
+public class TransferMetadataSnapshotTest {
+
+  /**
+   * Constants.
+   */
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  /**
+   * State.
+   */
+  private final AtomicInteger parses = new AtomicInteger();
+
+  @Test
+  public void testMissingFile() {
+    val file = new File(tmp.getRoot(), "missing.jsonl");
+    val snapshot = TransferMetadataSnapshot.load(file, changes(ImmutableSet.of(), ImmutableSet.of()));
+
+    assertThat(get(snapshot, "a.json", "a").get("value").textValue()).isEqualTo("a");
+    assertThat(parses.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testReuseUnchanged() {
+    val file = new File(tmp.getRoot(), "snapshot.jsonl");
+    val first = TransferMetadataSnapshot.load(file, TransferMetadataChanges.allPaths("c1"));
+    get(first, "kept.json", "kept");
+    get(first, "modified.json", "before");
+    get(first, "deleted.json", "deleted");
+    first.save();
+
+    val second = TransferMetadataSnapshot.load(file, changes(ImmutableSet.of("modified.json"),
+        ImmutableSet.of("deleted.json")));
+    assertThat(get(second, "kept.json", "other").get("value").textValue()).isEqualTo("kept");
+    assertThat(get(second, "modified.json", "after").get("value").textValue()).isEqualTo("after");
+    second.save();
+
+    // Paths not requested are dropped on save
+    assertThat(second.getPaths()).containsOnly("kept.json", "modified.json");
+    assertThat(parses.get()).isEqualTo(4);
+  }
+
+  @Test
+  public void testFullChangesIgnoreFile() {
+    val file = new File(tmp.getRoot(), "snapshot.jsonl");
+    val first = TransferMetadataSnapshot.load(file, TransferMetadataChanges.allPaths("c1"));
+    get(first, "kept.json", "kept");
+    first.save();
+
+    val second = TransferMetadataSnapshot.load(file, TransferMetadataChanges.allPaths("c2"));
+    assertThat(get(second, "kept.json", "other").get("value").textValue()).isEqualTo("other");
+    assertThat(parses.get()).isEqualTo(2);
+  }
+
+  private ObjectNode get(TransferMetadataSnapshot snapshot, String path, String value) {
+    return snapshot.get(path, () -> {
+      parses.incrementAndGet();
+      return MAPPER.createObjectNode().put("value", value);
+    });
+  }
+
+  private static TransferMetadataChanges changes(ImmutableSet<String> modifiedPaths,
+      ImmutableSet<String> deletedPaths) {
+    return new TransferMetadataChanges("c1", "c2", ImmutableSet.of(), modifiedPaths, deletedPaths);
+  }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.writer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.icgc.dcc.repository.core.RepositoryFileContextBuilder.getLocalMongoClientUri;
+import static org.icgc.dcc.repository.core.model.RepositorySource.GDC;
+import static org.icgc.dcc.repository.core.util.Jongos.newJongo;
+
+import java.util.Iterator;
+
+import org.icgc.dcc.repository.core.model.RepositoryCollection;
+import org.icgc.dcc.repository.core.model.RepositoryFile;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+
+import lombok.Cleanup;
+import lombok.val;
+
+@Ignore("For development only")
+public class RepositorySourceFileWriterTest {
+
+  @Test
+  public void testFailureMidStreamKeepsPreviousFiles() throws Exception {
+    val mongoUri = getLocalMongoClientUri("dcc-repository-test");
+
+    @Cleanup
+    val writer = new RepositorySourceFileWriter(mongoUri, GDC, 10, 1, true);
+    writer.write(ImmutableList.of(new RepositoryFile().setId("FI1"), new RepositoryFile().setId("FI2")));
+
+    try {
+      // Fails after several batches have already been written
+      writer.write(() -> failingFiles(25));
+      fail("Expected failure");
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("Network failure");
+    }
+
+    val collection = newJongo(mongoUri).getCollection(RepositoryCollection.forSource(GDC).getId());
+    assertThat(collection.count()).isEqualTo(2);
+  }
+
+  private static Iterator<RepositoryFile> failingFiles(int count) {
+    return new AbstractIterator<RepositoryFile>() {
+
+      int i = 0;
+
+      @Override
+      protected RepositoryFile computeNext() {
+        if (i == count) {
+          throw new IllegalStateException("Network failure");
+        }
+
+        return new RepositoryFile().setId("FI" + (100 + i++));
+      }
+
+    };
+  }
+
+}
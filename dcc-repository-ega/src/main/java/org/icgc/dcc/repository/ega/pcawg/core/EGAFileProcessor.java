@@ -26,7 +26,7 @@ import static org.icgc.dcc.repository.ega.pcawg.util.EGAAnalysisFiles.getChecksu
 import static org.icgc.dcc.repository.ega.pcawg.util.EGAAnalysisFiles.getFileName;
 import static org.icgc.dcc.repository.ega.pcawg.util.EGAAnalysisFiles.getFiles;
 import static org.icgc.dcc.repository.ega.pcawg.util.EGAAnalysisFiles.getSampleRef;
-import static org.icgc.dcc.repository.ega.pcawg.util.EGASampleFiles.getSampleAlias;
+import static org.icgc.dcc.repository.ega.pcawg.util.EGASampleFiles.getSampleAttributes;
 import static org.icgc.dcc.repository.ega.pcawg.util.EGASampleFiles.getSampleRefName;
 
 import java.util.List;
@@ -53,7 +53,6 @@ import org.icgc.dcc.repository.ega.pcawg.model.EGAStudyFile;
 import org.icgc.dcc.repository.ega.pcawg.model.EGASubmission;
 import org.icgc.dcc.repository.ega.pcawg.util.EGAAnalysisFiles;
 import org.icgc.dcc.repository.ega.pcawg.util.EGAGnosFiles;
-import org.icgc.dcc.repository.ega.pcawg.util.EGASampleFiles;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -290,7 +289,7 @@ public class EGAFileProcessor extends RepositoryFileProcessor {
   //
 
   private static Optional<EGAPublishedFile> resolvePublishedFile(EGASubmission submission, String fileName) {
-    return submission.getPublishedFiles().stream().filter(p -> p.getFileName().equals(fileName)).findFirst();
+    return Optional.ofNullable(submission.getPublishedFiles().get(fileName));
   }
 
   private static List<String> resolveStudies(EGAStudyFile studyFile) {
@@ -403,12 +402,8 @@ public class EGAFileProcessor extends RepositoryFileProcessor {
     val sampleRef = getSampleRef(submission.getAnalysisFile());
     val sampleRefName = getSampleRefName(sampleRef);
 
-    return submission.getSampleFiles().stream()
-        .flatMap(stream(EGASampleFiles::getSamples))
-        .filter(s -> sampleRefName.equals(getSampleAlias(s))) // SRA convention
-        .map(EGASampleFiles::getSampleAttributes)
-        .findFirst()
-        .orElse(null);
+    val sample = submission.getSamples().get(sampleRefName); // SRA convention
+    return sample == null ? null : getSampleAttributes(sample);
   }
 
   private static String resolveDonorId(ObjectNode sampleAttributes) {
@@ -17,8 +17,9 @@
  */
 package org.icgc.dcc.repository.ega.pcawg.model;
 
-import java.util.List;
-import java.util.Set;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
 
 import lombok.Builder;
 import lombok.Value;
@@ -27,9 +28,13 @@ import lombok.Value;
 @Builder
 public class EGASubmission {
 
-  List<EGAPublishedFile> publishedFiles;
+  /**
+   * Join indexes shared by all submissions of a run.
+   */
+  Map<String, EGAPublishedFile> publishedFiles; // By file name
+  Map<String, JsonNode> samples; // By alias, of the submission's project
+
   EGAStudyFile studyFile;
-  Set<EGASampleFile> sampleFiles;
 
   EGAGnosFile gnosFile;
   EGAAnalysisFile analysisFile;
@@ -24,6 +24,7 @@ import java.nio.file.Path;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.icgc.dcc.repository.core.util.TransferMetadataSnapshot;
 import org.icgc.dcc.repository.ega.pcawg.model.EGAAnalysisFile;
 
 public class EGAAnalysisFileReader extends EGAFileReader<EGAAnalysisFile> {
@@ -50,6 +51,10 @@ public class EGAAnalysisFileReader extends EGAFileReader<EGAAnalysisFile> {
     super(repoDir, ANALYSIS_FILE_PATTERN);
   }
 
+  public EGAAnalysisFileReader(File repoDir, TransferMetadataSnapshot snapshot) {
+    super(repoDir, ANALYSIS_FILE_PATTERN, snapshot);
+  }
+
   @Override
   protected EGAAnalysisFile createFile(Path path, Matcher matcher) {
     return analysisFile()
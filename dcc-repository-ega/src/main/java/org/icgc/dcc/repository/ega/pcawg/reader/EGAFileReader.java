@@ -31,21 +31,21 @@ import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
 
 import org.icgc.dcc.common.ega.util.XMLObjectNodeReader;
+import org.icgc.dcc.repository.core.util.TransferMetadataSnapshot;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import lombok.Cleanup;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.val;
 
-@RequiredArgsConstructor
 public abstract class EGAFileReader<T> {
 
   /**
    * Constants.
    */
-  private static final XMLObjectNodeReader reader = new XMLObjectNodeReader();
+  private static final ThreadLocal<XMLObjectNodeReader> READER = ThreadLocal.withInitial(XMLObjectNodeReader::new);
 
   private static final Pattern TEST_FILE_PATTERN = Pattern.compile("TEST-PROJ.*");
 
@@ -57,10 +57,29 @@ public abstract class EGAFileReader<T> {
   @NonNull
   private final Pattern filePattern;
 
+  /**
+   * Dependencies.
+   */
+  private final TransferMetadataSnapshot snapshot; // Optional
+
+  protected EGAFileReader(@NonNull File repoDir, @NonNull Pattern filePattern) {
+    this(repoDir, filePattern, null);
+  }
+
+  protected EGAFileReader(@NonNull File repoDir, @NonNull Pattern filePattern, TransferMetadataSnapshot snapshot) {
+    this.repoDir = repoDir;
+    this.filePattern = filePattern;
+    this.snapshot = snapshot;
+  }
+
+  /**
+   * @see EGAFileWalker for reading the files of several readers in a single walk
+   */
   @SneakyThrows
   public List<T> readFiles() {
-    return Files
-        .walk(repoDir.toPath())
+    @Cleanup
+    val paths = Files.walk(repoDir.toPath());
+    return paths
         .filter(not(this::isIgnored))
         .filter(this::isMatch)
         .map(this::createFile)
@@ -69,17 +88,29 @@ public abstract class EGAFileReader<T> {
 
   protected abstract T createFile(Path path, Matcher matcher);
 
-  @SneakyThrows
   protected ObjectNode readFile(Path path) {
+    if (snapshot == null) {
+      return parseFile(path);
+    }
+
+    // Only parse files changed since the last run
+    val relativePath = repoDir.toPath().relativize(path).toString();
+    return snapshot.get(relativePath, () -> parseFile(path));
+  }
+
+  @SneakyThrows
+  private static ObjectNode parseFile(Path path) {
     val file = path.toFile();
     val compressed = file.getName().endsWith(".gz");
     val fileStream = new FileInputStream(file);
+    @Cleanup
     val inputStream = compressed ? new GZIPInputStream(fileStream) : fileStream;
 
-    return reader.read(inputStream);
+    // Per thread since files may be parsed concurrently
+    return READER.get().read(inputStream);
   }
 
-  private T createFile(Path path) {
+  T createFile(Path path) {
     // Parse template
     val matcher = match(path, filePattern);
     checkState(matcher.find());
@@ -87,11 +118,11 @@ public abstract class EGAFileReader<T> {
     return createFile(path, matcher);
   }
 
-  private boolean isIgnored(Path path) {
+  boolean isIgnored(Path path) {
     return match(path, TEST_FILE_PATTERN).matches();
   }
 
-  private boolean isMatch(Path path) {
+  boolean isMatch(Path path) {
     return match(path, filePattern).matches();
   }
 
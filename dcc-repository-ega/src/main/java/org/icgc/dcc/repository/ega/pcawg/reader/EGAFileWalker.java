@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.ega.pcawg.reader;
+
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
+import static org.icgc.dcc.repository.core.util.ConcurrentIterators.transform;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+import lombok.Cleanup;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads the files of several {@link EGAFileReader}s in a single walk of the repository, classifying each path to the
+ * readers that match it and parsing on a bounded pool.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class EGAFileWalker {
+
+  /**
+   * Constants.
+   */
+  private static final int PENDING_FILES_PER_THREAD = 10;
+
+  /**
+   * Configuration.
+   */
+  @NonNull
+  private final File repoDir;
+  private final int concurrency;
+
+  @SneakyThrows
+  public Results readFiles(@NonNull List<EGAFileReader<?>> readers) {
+    val watch = Stopwatch.createStarted();
+
+    @Cleanup
+    val paths = Files.walk(repoDir.toPath());
+    Iterator<Entry<EGAFileReader<?>, Path>> matches = paths
+        .flatMap(path -> readers.stream()
+            .filter(reader -> !reader.isIgnored(path) && reader.isMatch(path))
+            .map(reader -> Maps.<EGAFileReader<?>, Path> immutableEntry(reader, path)))
+        .iterator();
+
+    // Parsed in walk order with a bounded number of pending paths
+    val parsed = transform("ega-file", matches, concurrency, concurrency * PENDING_FILES_PER_THREAD,
+        EGAFileWalker::createFile);
+
+    val readerFiles = new IdentityHashMap<EGAFileReader<?>, ImmutableList.Builder<Object>>();
+    readers.forEach(reader -> readerFiles.put(reader, ImmutableList.builder()));
+    parsed.forEachRemaining(file -> readerFiles.get(file.getKey()).add(file.getValue()));
+
+    val files = new IdentityHashMap<EGAFileReader<?>, List<?>>();
+    readerFiles.forEach((reader, builder) -> files.put(reader, builder.build()));
+
+    log.info("Read {} files of {} readers in {} using {} threads",
+        formatCount(files.values().stream().mapToInt(List::size).sum()), readers.size(), watch, concurrency);
+
+    return new Results(files);
+  }
+
+  private static Entry<EGAFileReader<?>, Object> createFile(Entry<EGAFileReader<?>, Path> match) {
+    return Maps.immutableEntry(match.getKey(), match.getKey().createFile(match.getValue()));
+  }
+
+  @RequiredArgsConstructor
+  public static class Results {
+
+    private final Map<EGAFileReader<?>, List<?>> files;
+
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(@NonNull EGAFileReader<T> reader) {
+      return (List<T>) files.get(reader);
+    }
+
+  }
+
+}
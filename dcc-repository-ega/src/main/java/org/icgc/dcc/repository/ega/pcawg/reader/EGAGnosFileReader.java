@@ -24,6 +24,7 @@ import java.nio.file.Path;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.icgc.dcc.repository.core.util.TransferMetadataSnapshot;
 import org.icgc.dcc.repository.ega.pcawg.model.EGAGnosFile;
 
 public class EGAGnosFileReader extends EGAFileReader<EGAGnosFile> {
@@ -51,6 +52,10 @@ public class EGAGnosFileReader extends EGAFileReader<EGAGnosFile> {
     super(repoDir, GNOS_FILE_PATTERN);
   }
 
+  public EGAGnosFileReader(File repoDir, TransferMetadataSnapshot snapshot) {
+    super(repoDir, GNOS_FILE_PATTERN, snapshot);
+  }
+
   @Override
   protected EGAGnosFile createFile(Path path, Matcher matcher) {
     return gnosFile()
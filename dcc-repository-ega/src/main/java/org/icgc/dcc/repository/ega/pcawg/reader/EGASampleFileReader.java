@@ -24,6 +24,7 @@ import java.nio.file.Path;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.icgc.dcc.repository.core.util.TransferMetadataSnapshot;
 import org.icgc.dcc.repository.ega.pcawg.model.EGASampleFile;
 
 public class EGASampleFileReader extends EGAFileReader<EGASampleFile> {
@@ -48,6 +49,10 @@ public class EGASampleFileReader extends EGAFileReader<EGASampleFile> {
     super(repoDir, SAMPLE_FILE_PATTERN);
   }
 
+  public EGASampleFileReader(File repoDir, TransferMetadataSnapshot snapshot) {
+    super(repoDir, SAMPLE_FILE_PATTERN, snapshot);
+  }
+
   @Override
   protected EGASampleFile createFile(Path path, Matcher matcher) {
     try {
@@ -24,6 +24,7 @@ import java.nio.file.Path;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.icgc.dcc.repository.core.util.TransferMetadataSnapshot;
 import org.icgc.dcc.repository.ega.pcawg.model.EGAStudyFile;
 
 public class EGAStudyFileReader extends EGAFileReader<EGAStudyFile> {
@@ -43,6 +44,10 @@ public class EGAStudyFileReader extends EGAFileReader<EGAStudyFile> {
     super(repoDir, STUDY_FILE_PATTERN);
   }
 
+  public EGAStudyFileReader(File repoDir, TransferMetadataSnapshot snapshot) {
+    super(repoDir, STUDY_FILE_PATTERN, snapshot);
+  }
+
   @Override
   protected EGAStudyFile createFile(Path path, Matcher matcher) {
     return studyFile()
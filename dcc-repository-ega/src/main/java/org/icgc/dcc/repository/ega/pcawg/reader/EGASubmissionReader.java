@@ -24,15 +24,16 @@ import static java.util.stream.Collectors.toList;
 import static org.icgc.dcc.common.core.util.Formats.formatCount;
 import static org.icgc.dcc.common.core.util.stream.Collectors.toImmutableList;
 import static org.icgc.dcc.repository.ega.pcawg.model.EGASubmission.submission;
+import static org.icgc.dcc.repository.ega.pcawg.util.EGASampleFiles.getSampleAlias;
+import static org.icgc.dcc.repository.ega.pcawg.util.EGASampleFiles.getSamples;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
-import org.eclipse.jgit.api.errors.GitAPIException;
 import org.icgc.dcc.repository.core.util.TransferMetadataRepository;
-import org.icgc.dcc.repository.ega.pcawg.model.EGAAnalysisFile;
+import org.icgc.dcc.repository.core.util.TransferMetadataSnapshot;
 import org.icgc.dcc.repository.ega.pcawg.model.EGAGnosFile;
 import org.icgc.dcc.repository.ega.pcawg.model.EGAPublishedFile;
 import org.icgc.dcc.repository.ega.pcawg.model.EGAReceiptFile;
@@ -40,20 +41,27 @@ import org.icgc.dcc.repository.ega.pcawg.model.EGASampleFile;
 import org.icgc.dcc.repository.ega.pcawg.model.EGAStudyFile;
 import org.icgc.dcc.repository.ega.pcawg.model.EGASubmission;
 
-import com.google.common.collect.HashMultimap;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimaps;
 import com.google.common.collect.TreeMultimap;
 
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.val;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-@RequiredArgsConstructor
 public class EGASubmissionReader {
 
+  /**
+   * Constants.
+   */
+  private static final String SNAPSHOT_SUFFIX = "xml.jsonl";
+  private static final int DEFAULT_CONCURRENCY = Runtime.getRuntime().availableProcessors();
+
   /**
    * Configuration.
    */
@@ -61,53 +69,66 @@ public class EGASubmissionReader {
   private final String repoUrl;
   @NonNull
   private final File repoDir;
+  private final int concurrency;
+
+  public EGASubmissionReader(@NonNull String repoUrl, @NonNull File repoDir) {
+    this(repoUrl, repoDir, DEFAULT_CONCURRENCY);
+  }
+
+  public EGASubmissionReader(@NonNull String repoUrl, @NonNull File repoDir, int concurrency) {
+    this.repoUrl = repoUrl;
+    this.repoDir = repoDir;
+    this.concurrency = concurrency;
+  }
 
   @SneakyThrows
   public List<EGASubmission> readSubmissions() {
     // Ensure we are in-sync with the remote
-    updateMetadata();
+    val repository = new TransferMetadataRepository(repoUrl, repoDir, true);
+    val changes = repository.update();
 
-    // Read and assemble
-    return createSubmissions();
-  }
+    // Read and assemble, only parsing XML files changed since the last run
+    val snapshot = TransferMetadataSnapshot.load(repository.getStateFile(SNAPSHOT_SUFFIX), changes);
+    val submissions = createSubmissions(snapshot);
 
-  private void updateMetadata() throws GitAPIException, IOException {
-    val repository = new TransferMetadataRepository(repoUrl, repoDir, true);
-    repository.update();
+    snapshot.save();
+    repository.markProcessed(changes);
+
+    return submissions;
   }
 
-  private List<EGASubmission> createSubmissions() {
-    // Read sources
-    log.info("Reading published files...");
-    val publishedFiles = readPublishedFiles();
-    log.info("Read {} published files.", formatCount(publishedFiles));
+  private List<EGASubmission> createSubmissions(TransferMetadataSnapshot snapshot) {
+    // Read sources in a single walk of the repository
+    val publishReader = new EGAPublishFileReader(repoDir);
+    val studyReader = new EGAStudyFileReader(repoDir, snapshot);
+    val sampleReader = new EGASampleFileReader(repoDir, snapshot);
+    val gnosReader = new EGAGnosFileReader(repoDir, snapshot);
+    val analysisReader = new EGAAnalysisFileReader(repoDir, snapshot);
+    val receiptReader = new EGAReceiptFileReader(repoDir);
 
-    log.info("Reading study files...");
-    val studyFiles = readStudyFiles();
-    log.info("Read {} study files.", formatCount(studyFiles));
+    log.info("Reading files...");
+    val files = new EGAFileWalker(repoDir, concurrency).readFiles(ImmutableList.of(
+        publishReader, studyReader, sampleReader, gnosReader, analysisReader, receiptReader));
 
-    log.info("Reading sample files...");
-    val sampleFiles = readSampleFiles();
+    val publishedFiles = files.get(publishReader).stream().flatMap(List::stream).collect(toList());
+    log.info("Read {} published files.", formatCount(publishedFiles));
+    val studyFiles = files.get(studyReader);
+    log.info("Read {} study files.", formatCount(studyFiles));
+    val sampleFiles = files.get(sampleReader);
     log.info("Read {} sample files.", formatCount(sampleFiles));
-
-    log.info("Reading gnos files...");
-    val gnosFiles = readGnosFiles();
+    val gnosFiles = files.get(gnosReader);
     log.info("Read {} gnos files.", formatCount(gnosFiles));
-
-    log.info("Reading analysis files...");
-    val analysisFiles = readAnalysisFiles();
+    val analysisFiles = files.get(analysisReader);
     log.info("Read {} analysis files.", formatCount(analysisFiles));
-
-    log.info("Reading receipt files...");
-    val receiptFiles = readReceiptFiles();
+    val receiptFiles = files.get(receiptReader);
     log.info("Read {} receipt files.", formatCount(receiptFiles));
 
     // Index sources for lookup in combine step
     val studyIndex = uniqueIndex(studyFiles, EGAStudyFile::getStudy);
     val gnosIndex = Multimaps.index(gnosFiles, EGAGnosFile::getAnalysisId);
 
-    val sampleIndex = HashMultimap.<String, EGASampleFile> create();
-    sampleFiles.forEach(f -> sampleIndex.put(f.getProjectId(), f));
+    val publishedFileIndex = indexPublishedFiles(publishedFiles);
+    val sampleIndex = indexSamples(sampleFiles);
 
     val receiptIndex = TreeMultimap.<String, EGAReceiptFile> create(natural(), timeDecending());
     receiptFiles.forEach(f -> receiptIndex.put(f.getAnalysisId(), f));
@@ -115,9 +136,9 @@ public class EGASubmissionReader {
     // Combine both files into a merged record
     return analysisFiles.stream()
         .map(f -> submission()
-            .publishedFiles(publishedFiles)
+            .publishedFiles(publishedFileIndex)
+            .samples(sampleIndex.getOrDefault(f.getProjectId(), ImmutableMap.of()))
             .studyFile(studyIndex.get(f.getStudy()))
-            .sampleFiles(sampleIndex.get(f.getProjectId()))
             .gnosFile(gnosIndex.get(f.getAnalysisId()).get(0))
             .receiptFile(getLatestReceipt(receiptIndex, f.getAnalysisId()))
             .analysisFile(f)
@@ -125,28 +146,30 @@ public class EGASubmissionReader {
         .collect(toImmutableList());
   }
 
-  private List<EGAPublishedFile> readPublishedFiles() {
-    return new EGAPublishFileReader(repoDir).readFiles().stream().flatMap(List::stream).collect(toList());
-  }
-
-  private List<EGAStudyFile> readStudyFiles() {
-    return new EGAStudyFileReader(repoDir).readFiles();
-  }
-
-  private List<EGASampleFile> readSampleFiles() {
-    return new EGASampleFileReader(repoDir).readFiles();
-  }
-
-  private List<EGAGnosFile> readGnosFiles() {
-    return new EGAGnosFileReader(repoDir).readFiles();
-  }
+  private static Map<String, EGAPublishedFile> indexPublishedFiles(List<EGAPublishedFile> publishedFiles) {
+    val index = Maps.<String, EGAPublishedFile> newHashMapWithExpectedSize(publishedFiles.size());
+    for (val publishedFile : publishedFiles) {
+      // First wins
+      index.putIfAbsent(publishedFile.getFileName(), publishedFile);
+    }
 
-  private List<EGAAnalysisFile> readAnalysisFiles() {
-    return new EGAAnalysisFileReader(repoDir).readFiles();
+    return index;
   }
 
-  private List<EGAReceiptFile> readReceiptFiles() {
-    return new EGAReceiptFileReader(repoDir).readFiles();
+  private static Map<String, Map<String, JsonNode>> indexSamples(List<EGASampleFile> sampleFiles) {
+    val index = Maps.<String, Map<String, JsonNode>> newHashMap();
+    for (val sampleFile : sampleFiles) {
+      val projectSamples = index.computeIfAbsent(sampleFile.getProjectId(), projectId -> Maps.newHashMap());
+      for (val sample : getSamples(sampleFile)) {
+        val alias = getSampleAlias(sample);
+        if (alias != null) {
+          // SRA convention
+          projectSamples.putIfAbsent(alias, sample);
+        }
+      }
+    }
+
+    return index;
   }
 
   private static EGAReceiptFile getLatestReceipt(TreeMultimap<String, EGAReceiptFile> receiptIndex, String analysisId) {
@@ -17,7 +17,6 @@
  */
 package org.icgc.dcc.repository.gdc;
 
-import static java.util.stream.Collectors.toList;
 import static org.icgc.dcc.repository.core.model.Repositories.getGDCRepository;
 import static org.icgc.dcc.repository.core.model.RepositorySource.GDC;
 
@@ -51,11 +50,13 @@ public class GDCImporter extends GenericRepositorySourceFileImporter {
     val files = readFiles(client);
     val results = processFiles(files);
 
-    return results.collect(toList());
+    // Streamed page by page into the writer rather than collected
+    return results::iterator;
   }
 
   private Stream<ObjectNode> readFiles(GDCClient client) {
-    return new GDCFileReader(client).readFiles();
+    // Files are processed independently so pages needn't arrive in order
+    return new GDCFileReader(client, context.getReadConcurrency(), false).readFiles();
   }
 
   private Stream<RepositoryFile> processFiles(Stream<ObjectNode> files) {
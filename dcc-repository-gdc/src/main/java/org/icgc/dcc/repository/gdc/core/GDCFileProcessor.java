@@ -18,8 +18,8 @@
 package org.icgc.dcc.repository.gdc.core;
 
 import static java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME;
-import static java.util.Collections.singleton;
 import static org.icgc.dcc.common.core.util.Formats.formatCount;
+import static org.icgc.dcc.common.core.util.stream.Streams.stream;
 import static org.icgc.dcc.common.gdc.core.GDCFiles.getAccess;
 import static org.icgc.dcc.common.gdc.core.GDCFiles.getAliquotId;
 import static org.icgc.dcc.common.gdc.core.GDCFiles.getAliquotSubmitterId;
@@ -69,6 +69,7 @@ import org.icgc.dcc.repository.core.model.RepositoryFile.ReferenceGenome;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 
 import lombok.NonNull;
@@ -88,6 +89,7 @@ public class GDCFileProcessor extends RepositoryFileProcessor {
    */
   private static final String SEQUENCING_STRATEGY_CODE_LIST_NAME = "GLOBAL.0.sequencing_strategy.v1";
   private static final String EXCLUDED_EXPERIMENTAL_STRATEGY = "non-NGS";
+  private static final int FILE_BATCH_SIZE = 1000;
 
   /**
    * Metadata.
@@ -107,8 +109,28 @@ public class GDCFileProcessor extends RepositoryFileProcessor {
     this.experimentalStrategies = resolveExperimentalStrategies();
   }
 
+  /**
+   * @return files created lazily in batches of {@link #FILE_BATCH_SIZE}, each of which has its studies and ids assigned
+   * in bulk rather than file by file.
+   */
   public Stream<RepositoryFile> process(Stream<ObjectNode> files) {
-    return files.map(this::createFile).filter(this::isIncluded);
+    val includedFiles = files.map(this::createFile).filter(this::isIncluded);
+
+    Iterable<List<RepositoryFile>> batches = () -> Iterators.partition(includedFiles.iterator(), FILE_BATCH_SIZE);
+    return stream(batches)
+        .flatMap(this::processBatch)
+        .onClose(files::close);
+  }
+
+  private Stream<RepositoryFile> processBatch(List<RepositoryFile> batch) {
+    // "Downstream"
+    assignStudy(batch);
+    assignIds(batch);
+
+    fileCount += batch.size();
+    log.info("Processed {} files", formatCount(fileCount));
+
+    return batch.stream();
   }
 
   private RepositoryFile createFile(ObjectNode file) {
@@ -211,14 +233,6 @@ public class GDCFileProcessor extends RepositoryFileProcessor {
       return null;
     }
 
-    // "Downstream"
-    assignStudy(singleton(gdcFile));
-    assignIds(singleton(gdcFile));
-
-    if (++fileCount % 1000 == 0) {
-      log.info("Processed {} files", formatCount(fileCount));
-    }
-
     return gdcFile;
   }
 
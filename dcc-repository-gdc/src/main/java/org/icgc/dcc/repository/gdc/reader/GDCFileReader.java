@@ -17,12 +17,26 @@
  */
 package org.icgc.dcc.repository.gdc.reader;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.Futures.getUnchecked;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.icgc.dcc.common.core.json.JsonNodeBuilders.array;
 import static org.icgc.dcc.common.core.json.JsonNodeBuilders.object;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
+import static org.icgc.dcc.common.core.util.stream.Streams.stream;
 import static org.icgc.dcc.common.gdc.client.GDCClient.Query.query;
 import static org.icgc.dcc.common.gdc.core.GDCProjects.getProjectsIds;
 
+import java.util.ArrayDeque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.stream.Stream;
 
 import org.icgc.dcc.common.gdc.client.GDCClient;
@@ -30,24 +44,27 @@ import org.icgc.dcc.common.gdc.client.GDCClient.Query;
 import org.icgc.dcc.common.gdc.reader.GDCReader;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.val;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Reads filtered GDC file records with the appropriate set of fields for downstream processing.
  * 
  * @see https://wiki.oicr.on.ca/pages/viewpage.action?pageId=66946440
  */
-@RequiredArgsConstructor
+@Slf4j
 public class GDCFileReader {
 
   /**
    * Constants.
    */
   private static final int PAGE_SIZE = 10000;
+  private static final long IDLE_THREAD_SECONDS = 10;
 
   private static final List<String> FIELD_NAMES =
       ImmutableList.of(
@@ -96,13 +113,38 @@ public class GDCFileReader {
                   .with("value", array().with(getProjectsIds())))
           .end();
 
+  /**
+   * Configuration.
+   */
+  private final int concurrency;
+  private final boolean ordered;
+
   /**
    * Dependencies.
    */
   @NonNull
   private final GDCClient client;
 
+  public GDCFileReader(GDCClient client) {
+    this(client, 1, true);
+  }
+
+  /**
+   * @param concurrency the maximum number of pages requested at once. 1 reads one page after another
+   * @param ordered whether files are returned in page order, which can hold back completed pages behind a slow one
+   */
+  public GDCFileReader(@NonNull GDCClient client, int concurrency, boolean ordered) {
+    checkArgument(concurrency > 0, "Concurrency must be positive: %s", concurrency);
+    this.client = client;
+    this.concurrency = concurrency;
+    this.ordered = ordered;
+  }
+
   public Stream<ObjectNode> readFiles() {
+    if (concurrency > 1) {
+      return readPagesConcurrently();
+    }
+
     val query = query()
         .size(PAGE_SIZE)
         .fields(FIELD_NAMES)
@@ -116,4 +158,100 @@ public class GDCFileReader {
     return new GDCReader(client::getFiles).read(query);
   }
 
+  private Stream<ObjectNode> readPagesConcurrently() {
+    // The first page gives the total which determines the offsets of the rest
+    val first = client.getFiles(createQuery(0));
+    val total = first.getPagination().getTotal();
+    val offsets = ImmutableList.<Integer> builder();
+    for (int from = PAGE_SIZE; from < total; from += PAGE_SIZE) {
+      offsets.add(from);
+    }
+
+    log.info("Reading {} GDC files in pages of {} using {} concurrent requests...",
+        formatCount(total), formatCount(PAGE_SIZE), concurrency);
+    // Idle threads exit so that an abandoned stream, which is never closed, leaves nothing behind
+    val executor = new ThreadPoolExecutor(concurrency, concurrency, IDLE_THREAD_SECONDS, SECONDS,
+        new LinkedBlockingQueue<>(), new ThreadFactoryBuilder().setNameFormat("gdc-page-%d").setDaemon(true).build());
+    executor.allowCoreThreadTimeOut(true);
+    Iterable<List<ObjectNode>> pages = () -> new PageIterator(offsets.build().iterator(), executor);
+
+    return Stream.concat(
+        first.getHits().stream(),
+        stream(pages).flatMap(List::stream))
+        .onClose(executor::shutdownNow);
+  }
+
+  private List<ObjectNode> readPage(int from) {
+    return client.getFiles(createQuery(from)).getHits();
+  }
+
+  private static Query createQuery(int from) {
+    // Zero based offset of the first file of the page
+    return query()
+        .from(from)
+        .size(PAGE_SIZE)
+        .fields(FIELD_NAMES)
+        .filters(PROJECT_FILTER)
+        .build();
+  }
+
+  /**
+   * Keeps up to {@code concurrency} page requests in flight and returns pages in offset or completion order.
+   */
+  private class PageIterator extends AbstractIterator<List<ObjectNode>> {
+
+    private final Iterator<Integer> offsets;
+    private final ExecutorService executor;
+    private final CompletionService<List<ObjectNode>> completion;
+    private final Queue<Future<List<ObjectNode>>> pending = new ArrayDeque<>();
+
+    private PageIterator(Iterator<Integer> offsets, ExecutorService executor) {
+      this.offsets = offsets;
+      this.executor = executor;
+      this.completion = new ExecutorCompletionService<>(executor);
+      fill();
+    }
+
+    @Override
+    protected List<ObjectNode> computeNext() {
+      if (pending.isEmpty()) {
+        executor.shutdown();
+        return endOfData();
+      }
+
+      try {
+        val next = ordered ? pending.remove() : take();
+        val page = getUnchecked(next);
+        fill();
+
+        return page;
+      } catch (RuntimeException e) {
+        // Cancel the requests in flight since nothing will take their pages
+        executor.shutdownNow();
+        throw e;
+      }
+    }
+
+    private void fill() {
+      while (pending.size() < concurrency && offsets.hasNext()) {
+        val from = offsets.next();
+        // Ordered pages are taken from the queue directly, bypassing the completion queue
+        pending.add(ordered ? executor.submit(() -> readPage(from)) : completion.submit(() -> readPage(from)));
+      }
+    }
+
+    private Future<List<ObjectNode>> take() {
+      try {
+        val future = completion.take();
+        pending.remove(future);
+
+        return future;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted reading GDC pages", e);
+      }
+    }
+
+  }
+
 }
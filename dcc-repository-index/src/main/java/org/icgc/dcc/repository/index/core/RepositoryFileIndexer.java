@@ -17,6 +17,7 @@
  */
 package org.icgc.dcc.repository.index.core;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Stopwatch.createStarted;
 import static com.google.common.base.Throwables.propagate;
@@ -29,28 +30,35 @@ import static org.icgc.dcc.repository.index.core.RepositoryFileIndexes.getCurren
 import static org.icgc.dcc.repository.index.core.RepositoryFileIndexes.getSettings;
 import static org.icgc.dcc.repository.index.core.RepositoryFileIndexes.getTypeMapping;
 import static org.icgc.dcc.repository.index.core.RepositoryFileIndexes.isRepoIndexName;
+import static org.icgc.dcc.repository.index.model.DocumentType.DONOR_TEXT;
+import static org.icgc.dcc.repository.index.model.DocumentType.FILE_CENTRIC;
+import static org.icgc.dcc.repository.index.model.DocumentType.FILE_TEXT;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Set;
-import java.util.zip.GZIPOutputStream;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.elasticsearch.client.Client;
-import org.icgc.dcc.dcc.common.es.DocumentWriterConfiguration;
-import org.icgc.dcc.dcc.common.es.DocumentWriterFactory;
-import org.icgc.dcc.dcc.common.es.core.DocumentWriter;
 import org.icgc.dcc.repository.index.document.DonorTextDocumentProcessor;
 import org.icgc.dcc.repository.index.document.FileCentricDocumentProcessor;
+import org.icgc.dcc.repository.index.document.FileDocumentFanOutProcessor;
+import org.icgc.dcc.repository.index.document.FileDocumentProcessor;
 import org.icgc.dcc.repository.index.document.FileTextDocumentProcessor;
 import org.icgc.dcc.repository.index.document.RepositoryDocumentProcessor;
 import org.icgc.dcc.repository.index.model.DocumentType;
+import org.icgc.dcc.repository.index.util.ArchiveCodec;
+import org.icgc.dcc.repository.index.util.BulkDocumentWriter;
+import org.icgc.dcc.repository.index.util.DocumentSink;
+import org.icgc.dcc.repository.index.util.QueuedDocumentSink;
 import org.icgc.dcc.repository.index.util.TarArchiveDocumentWriter;
 
+import com.google.common.collect.ImmutableList;
 import com.mongodb.MongoClientURI;
 
 import lombok.Cleanup;
@@ -62,6 +70,11 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class RepositoryFileIndexer implements Closeable {
 
+  /**
+   * Constants.
+   */
+  private static final int SINK_CAPACITY = 10000;
+
   /**
    * Configuration.
    */
@@ -73,22 +86,36 @@ public class RepositoryFileIndexer implements Closeable {
   private final String indexAlias;
   @NonNull
   private final String indexName;
+  private final int concurrency;
+  @NonNull
+  private final ArchiveCodec archiveCodec;
 
   /**
    * Dependencies.
    */
   @NonNull
   private final Client client;
-  private final DocumentWriter documentWriter;
 
   public RepositoryFileIndexer(@NonNull MongoClientURI mongoUri, @NonNull URI esUri, URI archiveUri,
       String indexAlias) {
+    this(mongoUri, esUri, archiveUri, indexAlias, 1, ArchiveCodec.GZIP);
+  }
+
+  /**
+   * @param concurrency when greater than 1, file documents are transformed by this many workers and written through
+   * queued Elasticsearch and archive stages
+   * @param archiveCodec compression of the archive, which uses all available cores if the codec supports it
+   */
+  public RepositoryFileIndexer(@NonNull MongoClientURI mongoUri, @NonNull URI esUri, URI archiveUri,
+      String indexAlias, int concurrency, ArchiveCodec archiveCodec) {
+    checkArgument(concurrency > 0, "Concurrency must be positive: %s", concurrency);
     this.mongoUri = mongoUri;
+    this.concurrency = concurrency;
+    this.archiveCodec = archiveCodec;
     this.archiveUri = archiveUri;
     this.indexAlias = indexAlias;
     this.indexName = getCurrentIndexName(indexAlias);
     this.client = createClient(esUri.toString());
-    this.documentWriter = createDocumentWriter(this.client, this.indexName);
   }
 
   public void indexFiles() {
@@ -100,7 +127,6 @@ public class RepositoryFileIndexer implements Closeable {
 
   @Override
   public void close() throws IOException {
-    documentWriter.close();
     client.close();
   }
 
@@ -151,51 +177,56 @@ public class RepositoryFileIndexer implements Closeable {
     }
   }
 
+  @SneakyThrows
   private void indexDocuments() {
     val watch = createStarted();
 
+    @Cleanup
+    val documentWriter = new BulkDocumentWriter(client, indexName);
     @Cleanup
     val archiveWriter = createArchiveWriter();
 
     log.info("Indexing repository documents...");
-    val repositoryCount = indexRepositoryDocuments(archiveWriter);
-    log.info("Indexing file documents...");
-    val fileCount = indexFileDocuments(archiveWriter);
-    log.info("Indexing file text documents...");
-    val fileTextCount = indexFileTextDocuments(archiveWriter);
-    log.info("Indexing file donor documents...");
-    val fileDonorCount = indexFileDonorDocuments(archiveWriter);
+    val repositoryCount = indexRepositoryDocuments(documentWriter, archiveWriter);
+    log.info("Indexing file, file text and file donor documents...");
+    val fileCounts = indexFileDocuments(documentWriter, archiveWriter);
 
     log.info("Finished indexing {}, repository, {} file, {} file text and {} file donor documents in {}",
-        formatCount(repositoryCount), formatCount(fileCount), formatCount(fileTextCount), formatCount(fileDonorCount),
-        watch);
+        formatCount(repositoryCount), formatCount(fileCounts.get(FILE_CENTRIC)),
+        formatCount(fileCounts.get(FILE_TEXT)), formatCount(fileCounts.get(DONOR_TEXT)), watch);
   }
 
-  @SneakyThrows
-  private int indexRepositoryDocuments(TarArchiveDocumentWriter archiveWriter) {
-    @Cleanup
-    val processor = new RepositoryDocumentProcessor(mongoUri, documentWriter, archiveWriter);
+  private int indexRepositoryDocuments(BulkDocumentWriter documentWriter, TarArchiveDocumentWriter archiveWriter) {
+    val processor = new RepositoryDocumentProcessor(documentWriter, archiveWriter::write);
     return processor.process();
   }
 
   @SneakyThrows
-  private int indexFileDocuments(TarArchiveDocumentWriter archiveWriter) {
-    @Cleanup
-    val processor = new FileCentricDocumentProcessor(mongoUri, documentWriter, archiveWriter);
-    return processor.process();
-  }
+  private Map<DocumentType, Integer> indexFileDocuments(BulkDocumentWriter documentWriter,
+      TarArchiveDocumentWriter archiveWriter) {
+    if (concurrency == 1) {
+      return processFileDocuments(documentWriter, archiveWriter::write);
+    }
 
-  @SneakyThrows
-  private int indexFileTextDocuments(TarArchiveDocumentWriter archiveWriter) {
+    // Decouple the Elasticsearch and archive writes from each other and from the transform workers
     @Cleanup
-    val processor = new FileTextDocumentProcessor(mongoUri, documentWriter, archiveWriter);
-    return processor.process();
+    val documentSink = new QueuedDocumentSink("es-sink", SINK_CAPACITY, documentWriter);
+    @Cleanup
+    val archiveSink = new QueuedDocumentSink("archive-sink", SINK_CAPACITY, archiveWriter::write);
+
+    return processFileDocuments(documentSink, archiveSink);
   }
 
   @SneakyThrows
-  private int indexFileDonorDocuments(TarArchiveDocumentWriter archiveWriter) {
+  private Map<DocumentType, Integer> processFileDocuments(DocumentSink documentSink, DocumentSink archiveSink) {
+    // Single pass over the files for all file derived document types
+    val processors = ImmutableList.<FileDocumentProcessor> of(
+        new FileCentricDocumentProcessor(documentSink, archiveSink),
+        new FileTextDocumentProcessor(documentSink, archiveSink),
+        new DonorTextDocumentProcessor(documentSink, archiveSink));
+
     @Cleanup
-    val processor = new DonorTextDocumentProcessor(mongoUri, documentWriter, archiveWriter);
+    val processor = new FileDocumentFanOutProcessor(mongoUri, processors, concurrency);
     return processor.process();
   }
 
@@ -207,7 +238,9 @@ public class RepositoryFileIndexer implements Closeable {
     }
 
     val fileSystem = FileSystem.get(archiveUri, new Configuration());
-    val archive = new GZIPOutputStream(fileSystem.create(new Path(archiveUri)));
+    val threads = Runtime.getRuntime().availableProcessors();
+    log.info("Compressing archive '{}' with {} using {} threads...", archiveUri, archiveCodec, threads);
+    val archive = archiveCodec.compress(fileSystem.create(new Path(archiveUri)), threads);
 
     return new TarArchiveDocumentWriter(indexName, archive);
   }
@@ -268,10 +301,4 @@ public class RepositoryFileIndexer implements Closeable {
         .collect(toImmutableSet());
   }
 
-  private static DocumentWriter createDocumentWriter(Client client, String indexName) {
-    val configuration = new DocumentWriterConfiguration().client(client).indexName(indexName);
-
-    return DocumentWriterFactory.createDocumentWriter(configuration);
-  }
-
 }
@@ -19,25 +19,26 @@ package org.icgc.dcc.repository.index.document;
 
 import static org.icgc.dcc.common.core.json.Jackson.DEFAULT;
 
-import java.util.function.Consumer;
-
-import org.icgc.dcc.dcc.common.es.core.DocumentWriter;
 import org.icgc.dcc.dcc.common.es.impl.IndexDocumentType;
 import org.icgc.dcc.dcc.common.es.model.IndexDocument;
-import org.icgc.dcc.repository.core.model.RepositoryCollection;
-import org.icgc.dcc.repository.core.util.AbstractJongoComponent;
-import org.icgc.dcc.repository.index.util.TarArchiveDocumentWriter;
+import org.icgc.dcc.repository.index.model.SerializedDocument;
+import org.icgc.dcc.repository.index.util.DocumentSink;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.mongodb.MongoClientURI;
 
 import lombok.NonNull;
 import lombok.SneakyThrows;
 import lombok.val;
 
-public abstract class DocumentProcessor extends AbstractJongoComponent {
+public abstract class DocumentProcessor {
+
+  /**
+   * Constants.
+   */
+  private static final ObjectMapper MAPPER = new ObjectMapper();
 
   /**
    * Configuration.
@@ -49,24 +50,16 @@ public abstract class DocumentProcessor extends AbstractJongoComponent {
    * Dependencies.
    */
   @NonNull
-  private final TarArchiveDocumentWriter archiveWriter;
+  private final DocumentSink archiveWriter;
   @NonNull
-  private final DocumentWriter documentWriter;
+  private final DocumentSink documentWriter;
 
-  public DocumentProcessor(MongoClientURI mongoUri, IndexDocumentType type, DocumentWriter documentWriter,
-      TarArchiveDocumentWriter archiveWriter) {
-    super(mongoUri);
+  public DocumentProcessor(IndexDocumentType type, DocumentSink documentWriter, DocumentSink archiveWriter) {
     this.documentWriter = documentWriter;
     this.archiveWriter = archiveWriter;
     this.indexType = type;
   }
 
-  abstract public int process();
-
-  protected int eachFile(Consumer<ObjectNode> consumer) {
-    return eachDocument(RepositoryCollection.FILE, consumer);
-  }
-
   protected IndexDocument createDocument(@NonNull String id) {
     return createDocument(id, DEFAULT.createObjectNode());
   }
@@ -81,8 +74,11 @@ public abstract class DocumentProcessor extends AbstractJongoComponent {
     val source = document.getSource();
     source.remove("_id");
 
-    documentWriter.write(document);
-    archiveWriter.write(document);
+    // Encode once for all sinks
+    val serialized = new SerializedDocument(document.getId(), document.getType(), MAPPER.writeValueAsBytes(source));
+
+    documentWriter.write(serialized);
+    archiveWriter.write(serialized);
   }
 
   protected static String getId(ObjectNode file) {
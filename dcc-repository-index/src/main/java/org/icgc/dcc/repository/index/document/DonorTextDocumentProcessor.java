@@ -24,25 +24,23 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import org.icgc.dcc.dcc.common.es.core.DocumentWriter;
 import org.icgc.dcc.dcc.common.es.model.IndexDocument;
 import org.icgc.dcc.repository.index.model.DocumentType;
-import org.icgc.dcc.repository.index.util.TarArchiveDocumentWriter;
+import org.icgc.dcc.repository.index.util.DocumentSink;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
-import com.mongodb.MongoClientURI;
 
-import lombok.SneakyThrows;
 import lombok.Value;
 import lombok.val;
 import lombok.experimental.Accessors;
 
-public class DonorTextDocumentProcessor extends DocumentProcessor {
+public class DonorTextDocumentProcessor extends FileDocumentProcessor {
 
   /**
    * Constants.
@@ -56,31 +54,19 @@ public class DonorTextDocumentProcessor extends DocumentProcessor {
       "tcga_sample_barcode",
       "tcga_aliquot_barcode");
 
-  public DonorTextDocumentProcessor(MongoClientURI mongoUri, DocumentWriter documentWriter,
-      TarArchiveDocumentWriter archiveWriter) {
-    super(mongoUri, () -> DocumentType.DONOR_TEXT.getId(), documentWriter, archiveWriter);
-  }
-
-  @Override
-  @SneakyThrows
-  public int process() {
-    val summary = resolveFileDonorSummary();
-
-    val donorIds = summary.donorIds();
-    for (val donorId : donorIds) {
-      val document = createFileDonor(summary, donorId);
-
-      addDocument(document);
-    }
+  /**
+   * State.
+   */
+  private final FileDonorSummary summary = new FileDonorSummary();
 
-    return donorIds.size();
+  public DonorTextDocumentProcessor(DocumentSink documentWriter, DocumentSink archiveWriter) {
+    super(DocumentType.DONOR_TEXT, documentWriter, archiveWriter);
   }
 
-  private FileDonorSummary resolveFileDonorSummary() {
-    val summary = new FileDonorSummary();
-
+  @Override
+  public void processFile(ObjectNode file) {
     // Collect
-    eachFile(file -> {
+    synchronized (summary) {
       for (JsonNode donor : getDonors(file)) {
         summary.donorIds().add(getDonorId(donor));
         summary.submittedDonorIds().put(getDonorId(donor), getSubmittedDonorId(donor));
@@ -93,9 +79,20 @@ public class DonorTextDocumentProcessor extends DocumentProcessor {
           }
         }
       }
-    });
+    }
+  }
 
-    return summary;
+  @Override
+  public int complete(int fileCount) {
+    // Donors are only known once every file has been seen
+    val donorIds = summary.donorIds();
+    for (val donorId : donorIds) {
+      val document = createFileDonor(summary, donorId);
+
+      addDocument(document);
+    }
+
+    return donorIds.size();
   }
 
   private String resolveFieldValue(JsonNode donor, String fieldName) {
@@ -17,28 +17,25 @@
  */
 package org.icgc.dcc.repository.index.document;
 
-import org.icgc.dcc.dcc.common.es.core.DocumentWriter;
-import org.icgc.dcc.dcc.common.es.model.IndexDocument;
 import org.icgc.dcc.repository.index.model.DocumentType;
-import org.icgc.dcc.repository.index.util.TarArchiveDocumentWriter;
+import org.icgc.dcc.repository.index.util.DocumentSink;
 
-import com.mongodb.MongoClientURI;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
-public class FileCentricDocumentProcessor extends DocumentProcessor {
+import lombok.val;
 
-  public FileCentricDocumentProcessor(MongoClientURI mongoUri, DocumentWriter documentWriter,
-      TarArchiveDocumentWriter archiveWriter) {
-    super(mongoUri, () -> DocumentType.FILE_CENTRIC.getId(), documentWriter, archiveWriter);
+public class FileCentricDocumentProcessor extends FileDocumentProcessor {
+
+  public FileCentricDocumentProcessor(DocumentSink documentWriter, DocumentSink archiveWriter) {
+    super(DocumentType.FILE_CENTRIC, documentWriter, archiveWriter);
   }
 
   @Override
-  public int process() {
-    return eachFile(file -> {
-      String id = getId(file);
-      IndexDocument document = createDocument(id, file);
+  public void processFile(ObjectNode file) {
+    val id = getId(file);
+    val document = createDocument(id, file);
 
-      addDocument(document);
-    });
+    addDocument(document);
   }
 
 }
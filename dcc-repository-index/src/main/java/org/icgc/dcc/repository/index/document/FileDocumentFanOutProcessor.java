@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.document;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.concurrent.TimeUnit.DAYS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.icgc.dcc.repository.core.model.RepositoryCollection;
+import org.icgc.dcc.repository.core.util.AbstractJongoComponent;
+import org.icgc.dcc.repository.index.model.DocumentType;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.mongodb.MongoClientURI;
+
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads the {@code File} collection once and hands each file to every one of a set of {@link FileDocumentProcessor}s.
+ * <p>
+ * With a {@code concurrency} greater than 1 the calling thread only reads the cursor while a pool of workers transforms
+ * files into documents. The number of files pending transformation is bounded, beyond which the reader transforms the
+ * file itself.
+ */
+@Slf4j
+public class FileDocumentFanOutProcessor extends AbstractJongoComponent {
+
+  /**
+   * Constants.
+   */
+  private static final int PENDING_FILES_PER_WORKER = 100;
+
+  /**
+   * Configuration.
+   */
+  private final int concurrency;
+
+  /**
+   * Dependencies.
+   */
+  @NonNull
+  private final List<FileDocumentProcessor> processors;
+
+  public FileDocumentFanOutProcessor(MongoClientURI mongoUri, @NonNull List<FileDocumentProcessor> processors) {
+    this(mongoUri, processors, 1);
+  }
+
+  public FileDocumentFanOutProcessor(MongoClientURI mongoUri, @NonNull List<FileDocumentProcessor> processors,
+      int concurrency) {
+    super(mongoUri);
+    checkArgument(concurrency > 0, "Concurrency must be positive: %s", concurrency);
+    this.processors = ImmutableList.copyOf(processors);
+    this.concurrency = concurrency;
+  }
+
+  /**
+   * @return the number of documents produced by type
+   */
+  public Map<DocumentType, Integer> process() {
+    val fileCount = concurrency == 1 ?
+        eachDocument(RepositoryCollection.FILE, this::processFile) :
+        processConcurrently();
+    log.info("Read {} files", formatCount(fileCount));
+
+    val counts = ImmutableMap.<DocumentType, Integer> builder();
+    for (val processor : processors) {
+      counts.put(processor.getDocumentType(), processor.complete(fileCount));
+    }
+
+    return counts.build();
+  }
+
+  @SneakyThrows
+  private int processConcurrently() {
+    log.info("Processing files using {} workers...", concurrency);
+    val workers = new ThreadPoolExecutor(concurrency, concurrency, 0L, SECONDS,
+        new ArrayBlockingQueue<>(concurrency * PENDING_FILES_PER_WORKER), new CallerRunsPolicy());
+
+    val failure = new AtomicReference<Throwable>();
+    try {
+      return eachDocument(RepositoryCollection.FILE, file -> {
+        checkFailure(failure);
+        workers.execute(() -> {
+          try {
+            processFile(file);
+          } catch (Throwable t) {
+            failure.compareAndSet(null, t);
+          }
+        });
+      });
+    } finally {
+      workers.shutdown();
+      workers.awaitTermination(1, DAYS);
+      checkFailure(failure);
+    }
+  }
+
+  private void processFile(ObjectNode file) {
+    for (val processor : processors) {
+      processor.processFile(file);
+    }
+  }
+
+  private static void checkFailure(AtomicReference<Throwable> failure) {
+    val t = failure.get();
+    if (t != null) {
+      throw Throwables.propagate(t);
+    }
+  }
+
+}
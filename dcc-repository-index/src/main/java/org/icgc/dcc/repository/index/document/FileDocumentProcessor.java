@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.document;
+
+import org.icgc.dcc.repository.index.model.DocumentType;
+import org.icgc.dcc.repository.index.util.DocumentSink;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Processor that derives documents of a single type from the documents of the {@code File} collection.
+ * <p>
+ * Files are supplied by a {@link FileDocumentFanOutProcessor} so that any number of these may share a single pass over
+ * the collection.
+ */
+public abstract class FileDocumentProcessor extends DocumentProcessor {
+
+  /**
+   * Configuration.
+   */
+  @Getter
+  @NonNull
+  private final DocumentType documentType;
+
+  public FileDocumentProcessor(@NonNull DocumentType documentType, DocumentSink documentWriter,
+      DocumentSink archiveWriter) {
+    super(() -> documentType.getId(), documentWriter, archiveWriter);
+    this.documentType = documentType;
+  }
+
+  /**
+   * Called once for each document of the {@code File} collection, possibly from multiple threads at once.
+   * Implementations must not modify {@code file} after a document sourced from it has been added.
+   */
+  abstract public void processFile(ObjectNode file);
+
+  /**
+   * Called once after all files have been processed.
+   * 
+   * @return the number of documents produced
+   */
+  public int complete(int fileCount) {
+    return fileCount;
+  }
+
+}
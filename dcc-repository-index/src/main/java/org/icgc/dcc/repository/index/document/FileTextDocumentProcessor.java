@@ -23,30 +23,23 @@ import static org.icgc.dcc.common.core.util.stream.Streams.stream;
 
 import java.util.List;
 
-import org.icgc.dcc.dcc.common.es.core.DocumentWriter;
 import org.icgc.dcc.dcc.common.es.model.IndexDocument;
 import org.icgc.dcc.repository.index.model.DocumentType;
-import org.icgc.dcc.repository.index.util.TarArchiveDocumentWriter;
+import org.icgc.dcc.repository.index.util.DocumentSink;
 
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.mongodb.MongoClientURI;
 
 import lombok.val;
 
-public class FileTextDocumentProcessor extends DocumentProcessor {
+public class FileTextDocumentProcessor extends FileDocumentProcessor {
 
-  public FileTextDocumentProcessor(MongoClientURI mongoUri, DocumentWriter documentWriter,
-      TarArchiveDocumentWriter archiveWriter) {
-    super(mongoUri, () -> DocumentType.FILE_TEXT.getId(), documentWriter, archiveWriter);
+  public FileTextDocumentProcessor(DocumentSink documentWriter, DocumentSink archiveWriter) {
+    super(DocumentType.FILE_TEXT, documentWriter, archiveWriter);
   }
 
   @Override
-  public int process() {
-    return eachFile(this::addDocument);
-  }
-
-  private void addDocument(ObjectNode file) {
+  public void processFile(ObjectNode file) {
     val id = getId(file);
     val document = createFileText(file, id);
 
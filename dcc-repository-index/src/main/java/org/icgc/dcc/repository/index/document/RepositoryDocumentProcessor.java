@@ -21,26 +21,21 @@ import static java.util.stream.Collectors.toList;
 import static org.icgc.dcc.common.core.json.JsonNodeBuilders.array;
 import static org.icgc.dcc.common.core.json.JsonNodeBuilders.object;
 
-import org.icgc.dcc.dcc.common.es.core.DocumentWriter;
 import org.icgc.dcc.dcc.common.es.model.IndexDocument;
 import org.icgc.dcc.repository.core.model.Repositories;
 import org.icgc.dcc.repository.core.model.Repository;
 import org.icgc.dcc.repository.core.model.RepositoryAccess;
 import org.icgc.dcc.repository.index.model.DocumentType;
-import org.icgc.dcc.repository.index.util.TarArchiveDocumentWriter;
-
-import com.mongodb.MongoClientURI;
+import org.icgc.dcc.repository.index.util.DocumentSink;
 
 import lombok.val;
 
 public class RepositoryDocumentProcessor extends DocumentProcessor {
 
-  public RepositoryDocumentProcessor(MongoClientURI mongoUri, DocumentWriter documentWriter,
-      TarArchiveDocumentWriter archiveWriter) {
-    super(mongoUri, () -> DocumentType.REPOSITORY.getId(), documentWriter, archiveWriter);
+  public RepositoryDocumentProcessor(DocumentSink documentWriter, DocumentSink archiveWriter) {
+    super(() -> DocumentType.REPOSITORY.getId(), documentWriter, archiveWriter);
   }
 
-  @Override
   public int process() {
     int count = 0;
     for (val repository : Repositories.getRepositories()) {
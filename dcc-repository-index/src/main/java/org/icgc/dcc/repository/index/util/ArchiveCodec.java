@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.github.luben.zstd.ZstdOutputStream;
+
+/**
+ * Compression applied to the Knapsack archive.
+ */
+public enum ArchiveCodec {
+
+  /**
+   * Single threaded gzip.
+   */
+  GZIP {
+
+    @Override
+    public OutputStream compress(OutputStream out, int threads) throws IOException {
+      return new GZIPOutputStream(out);
+    }
+
+  },
+
+  /**
+   * Multi-member gzip compressed in parallel blocks. Readable by {@code gunzip}.
+   */
+  PARALLEL_GZIP {
+
+    @Override
+    public OutputStream compress(OutputStream out, int threads) throws IOException {
+      return new ParallelGzipOutputStream(out, threads);
+    }
+
+  },
+
+  /**
+   * Zstandard using its own worker threads. Faster and smaller than gzip but requires {@code zstd} to read.
+   */
+  ZSTD {
+
+    @Override
+    public OutputStream compress(OutputStream out, int threads) throws IOException {
+      return new ZstdOutputStream(out, ZSTD_LEVEL).setWorkers(threads);
+    }
+
+  };
+
+  /**
+   * Constants.
+   */
+  private static final int ZSTD_LEVEL = 3;
+
+  abstract public OutputStream compress(OutputStream out, int threads) throws IOException;
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static java.util.concurrent.TimeUnit.DAYS;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.icgc.dcc.repository.index.model.SerializedDocument;
+
+import lombok.NonNull;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Elasticsearch bulk writer of {@link SerializedDocument}s.
+ * <p>
+ * Document sources are sent as-is so that they are not encoded again for the bulk request.
+ */
+@Slf4j
+public class BulkDocumentWriter implements DocumentSink, Closeable {
+
+  /**
+   * Constants.
+   */
+  public static final int DEFAULT_CONCURRENT_REQUESTS = 1;
+  private static final int BULK_ACTIONS = 10000;
+  private static final ByteSizeValue BULK_SIZE = new ByteSizeValue(50, ByteSizeUnit.MB);
+
+  /**
+   * Configuration.
+   */
+  @NonNull
+  private final String indexName;
+
+  /**
+   * Dependencies.
+   */
+  @NonNull
+  private final Client client;
+
+  /**
+   * State.
+   */
+  private final BulkProcessor processor;
+  private final AtomicLong writeCount = new AtomicLong();
+  private volatile String failure;
+
+  public BulkDocumentWriter(@NonNull Client client, @NonNull String indexName) {
+    this(client, indexName, DEFAULT_CONCURRENT_REQUESTS);
+  }
+
+  public BulkDocumentWriter(@NonNull Client client, @NonNull String indexName, int concurrentRequests) {
+    this.client = client;
+    this.indexName = indexName;
+    this.processor = BulkProcessor.builder(client, new Listener())
+        .setBulkActions(BULK_ACTIONS)
+        .setBulkSize(BULK_SIZE)
+        .setConcurrentRequests(concurrentRequests)
+        .build();
+  }
+
+  @Override
+  public void write(@NonNull SerializedDocument document) throws IOException {
+    checkFailure();
+
+    val request = client.prepareIndex(indexName, document.getType().getIndexType(), document.getId())
+        .setSource(document.getSource())
+        .request();
+
+    processor.add(request);
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      processor.awaitClose(1, DAYS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted closing bulk writer for index '" + indexName + "'");
+    }
+
+    checkFailure();
+    log.info("Finished writing {} documents to index '{}'", formatCount(writeCount.get()), indexName);
+  }
+
+  private void checkFailure() throws IOException {
+    if (failure != null) {
+      throw new IOException("Error writing to index '" + indexName + "': " + failure);
+    }
+  }
+
+  private class Listener implements BulkProcessor.Listener {
+
+    @Override
+    public void beforeBulk(long executionId, BulkRequest request) {
+      log.debug("Executing bulk {} of {} documents...", executionId, formatCount(request.numberOfActions()));
+    }
+
+    @Override
+    public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+      if (response.hasFailures()) {
+        log.error("Bulk {} had failures: {}", executionId, response.buildFailureMessage());
+        failure = response.buildFailureMessage();
+      } else {
+        writeCount.addAndGet(request.numberOfActions());
+      }
+    }
+
+    @Override
+    public void afterBulk(long executionId, BulkRequest request, Throwable t) {
+      log.error("Bulk " + executionId + " failed: ", t);
+      failure = String.valueOf(t);
+    }
+
+  }
+
+}
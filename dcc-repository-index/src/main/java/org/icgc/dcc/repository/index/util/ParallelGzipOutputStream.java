@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+import lombok.NonNull;
+import lombok.val;
+
+/**
+ * Gzip output stream that compresses fixed size blocks on a pool of threads.
+ * <p>
+ * Each block is written as a complete gzip member in the order it was received. Concatenated members are a valid gzip
+ * stream (RFC 1952) that {@code gunzip} and {@link java.util.zip.GZIPInputStream} read back as a single stream.
+ * <p>
+ * Not thread safe.
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+
+  /**
+   * Constants.
+   */
+  public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+  private static final int PENDING_BLOCKS_PER_THREAD = 2;
+
+  /**
+   * Configuration.
+   */
+  private final int blockSize;
+  private final int maxPendingBlocks;
+
+  /**
+   * Dependencies.
+   */
+  @NonNull
+  private final OutputStream out;
+  private final ExecutorService executor;
+
+  /**
+   * State.
+   */
+  private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+  private byte[] block;
+  private int blockLength;
+  private long blockCount;
+  private boolean closed;
+
+  public ParallelGzipOutputStream(OutputStream out, int threads) {
+    this(out, threads, DEFAULT_BLOCK_SIZE);
+  }
+
+  public ParallelGzipOutputStream(@NonNull OutputStream out, int threads, int blockSize) {
+    checkArgument(threads > 0, "Threads must be positive: %s", threads);
+    checkArgument(blockSize > 0, "Block size must be positive: %s", blockSize);
+    this.out = out;
+    this.blockSize = blockSize;
+    this.maxPendingBlocks = threads * PENDING_BLOCKS_PER_THREAD;
+    this.executor = Executors.newFixedThreadPool(threads);
+    this.block = new byte[blockSize];
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    block[blockLength++] = (byte) b;
+    if (blockLength == blockSize) {
+      submitBlock();
+    }
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    while (len > 0) {
+      val n = Math.min(len, blockSize - blockLength);
+      System.arraycopy(b, off, block, blockLength, n);
+      blockLength += n;
+      off += n;
+      len -= n;
+
+      if (blockLength == blockSize) {
+        submitBlock();
+      }
+    }
+  }
+
+  /**
+   * Ends the current block and writes out all compressed blocks.
+   */
+  @Override
+  public void flush() throws IOException {
+    if (blockLength > 0) {
+      submitBlock();
+    }
+    while (!pending.isEmpty()) {
+      writeBlock();
+    }
+
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+
+    closed = true;
+    try {
+      // An empty input still needs one member to be a valid gzip stream
+      if (blockLength > 0 || blockCount == 0) {
+        submitBlock();
+      }
+      while (!pending.isEmpty()) {
+        writeBlock();
+      }
+    } finally {
+      executor.shutdownNow();
+      out.close();
+    }
+  }
+
+  private void submitBlock() throws IOException {
+    val data = block;
+    val length = blockLength;
+    pending.add(executor.submit(() -> compress(data, length)));
+    blockCount++;
+
+    // Hand off the buffer rather than copying it
+    block = new byte[blockSize];
+    blockLength = 0;
+
+    while (pending.size() > maxPendingBlocks) {
+      writeBlock();
+    }
+  }
+
+  private void writeBlock() throws IOException {
+    try {
+      out.write(pending.removeFirst().get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted compressing block");
+    } catch (ExecutionException e) {
+      throw new IOException("Error compressing block", e.getCause());
+    }
+  }
+
+  private static byte[] compress(byte[] data, int length) throws IOException {
+    val buffer = new ByteArrayOutputStream(length / 2);
+    val gzip = new GZIPOutputStream(buffer);
+    gzip.write(data, 0, length);
+    gzip.close();
+
+    return buffer.toByteArray();
+  }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.icgc.dcc.repository.index.model.SerializedDocument;
+
+import lombok.NonNull;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pipeline stage that writes documents to a delegate {@link DocumentSink} on a dedicated thread.
+ * <p>
+ * Producers are blocked once {@code capacity} documents are pending so that a slow delegate applies backpressure
+ * rather than accumulating documents in memory.
+ */
+@Slf4j
+public class QueuedDocumentSink implements DocumentSink, Closeable {
+
+  /**
+   * Constants.
+   */
+  private static final long POLL_TIMEOUT_MS = 100;
+
+  /**
+   * Configuration.
+   */
+  @NonNull
+  private final String name;
+
+  /**
+   * Dependencies.
+   */
+  @NonNull
+  private final DocumentSink delegate;
+
+  /**
+   * State.
+   */
+  private final BlockingQueue<SerializedDocument> queue;
+  private final Thread thread;
+  private volatile boolean closed;
+  private volatile Throwable failure;
+  private long writeCount;
+
+  public QueuedDocumentSink(@NonNull String name, int capacity, @NonNull DocumentSink delegate) {
+    checkArgument(capacity > 0, "Capacity must be positive: %s", capacity);
+    this.name = name;
+    this.delegate = delegate;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.thread = new Thread(this::drain, name);
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  @Override
+  public void write(@NonNull SerializedDocument document) throws IOException {
+    checkFailure();
+    try {
+      while (!queue.offer(document, POLL_TIMEOUT_MS, MILLISECONDS)) {
+        // Don't wait forever on a stage that has stopped draining
+        checkFailure();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted writing to '" + name + "'");
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted closing '" + name + "'");
+    }
+
+    checkFailure();
+    log.info("Finished writing {} documents to '{}'", formatCount(writeCount), name);
+  }
+
+  private void drain() {
+    try {
+      while (!closed || !queue.isEmpty()) {
+        val document = queue.poll(POLL_TIMEOUT_MS, MILLISECONDS);
+        if (document != null) {
+          delegate.write(document);
+          writeCount++;
+        }
+      }
+    } catch (Throwable t) {
+      log.error("Error writing to '" + name + "': ", t);
+      failure = t;
+    }
+  }
+
+  private void checkFailure() throws IOException {
+    if (failure != null) {
+      throw new IOException("Error writing to '" + name + "'", failure);
+    }
+  }
+
+}
@@ -20,20 +20,19 @@ package org.icgc.dcc.repository.index.util;
 import static com.fasterxml.jackson.core.JsonGenerator.Feature.AUTO_CLOSE_TARGET;
 import static org.icgc.dcc.common.core.util.Formats.formatBytes;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
 
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
-import org.apache.commons.compress.utils.CountingOutputStream;
-import org.icgc.dcc.dcc.common.es.model.IndexDocument;
 import org.icgc.dcc.repository.index.core.RepositoryFileIndexes;
 import org.icgc.dcc.repository.index.model.DocumentType;
+import org.icgc.dcc.repository.index.model.SerializedDocument;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.google.common.io.ByteStreams;
 
 import lombok.NonNull;
 import lombok.SneakyThrows;
@@ -42,6 +41,9 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Knapsack compliant archive writer.
+ * <p>
+ * Not thread safe. Documents are written as encoded once by the caller in a {@link SerializedDocument}. Only the meta
+ * entries are encoded here, into a buffer that is reused across entries.
  * 
  * @see https://github.com/jprante/elasticsearch-knapsack
  */
@@ -64,6 +66,7 @@ public class TarArchiveDocumentWriter implements Closeable {
    * State.
    */
   private final TarArchiveOutputStream archive;
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
 
   public TarArchiveDocumentWriter(@NonNull String indexName, @NonNull OutputStream outputStream) throws IOException {
     // Create state
@@ -73,8 +76,8 @@ public class TarArchiveDocumentWriter implements Closeable {
     addMetaEntries();
   }
 
-  public void write(IndexDocument document) throws IOException {
-    val name = formatEntryName(document);
+  public void write(SerializedDocument document) throws IOException {
+    val name = formatEntryName(document.getType().getIndexType(), document.getId());
 
     try {
       addEntry(name, document.getSource());
@@ -105,19 +108,26 @@ public class TarArchiveDocumentWriter implements Closeable {
   }
 
   private void addEntry(String name, ObjectNode source) throws IOException {
-    val size = getSize(source);
+    buffer.reset();
+    MAPPER.writeValue(buffer, source);
 
+    putEntry(name, buffer.size());
+    buffer.writeTo(archive);
+    archive.closeArchiveEntry();
+  }
+
+  private void addEntry(String name, byte[] source) throws IOException {
+    putEntry(name, source.length);
+    archive.write(source);
+    archive.closeArchiveEntry();
+  }
+
+  private void putEntry(String name, long size) throws IOException {
     // knapsack 2.x versions needs an extra directory so we embedded them under the index
     val entry = new TarArchiveEntry(formatEntryName(indexName, name));
     entry.setSize(size);
 
     archive.putArchiveEntry(entry);
-    MAPPER.writeValue(archive, source);
-    archive.closeArchiveEntry();
-  }
-
-  private static String formatEntryName(IndexDocument document) {
-    return formatEntryName(document.getType().getIndexType(), document.getId());
   }
 
   private static String formatEntryName(String parent, String child) {
@@ -128,12 +138,4 @@ public class TarArchiveDocumentWriter implements Closeable {
     return new TarArchiveOutputStream(outputStream);
   }
 
-  @SneakyThrows
-  private static long getSize(ObjectNode source) {
-    val counter = new CountingOutputStream(ByteStreams.nullOutputStream());
-    MAPPER.writeValue(counter, source);
-
-    return counter.getBytesWritten();
-  }
-
 }
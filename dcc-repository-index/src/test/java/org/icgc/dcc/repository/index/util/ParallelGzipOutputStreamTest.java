@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+
+import lombok.val;
+
+public class ParallelGzipOutputStreamTest {
+
+  @Test
+  public void testMultipleBlocks() throws Exception {
+    val data = new byte[10 * 1000 + 7];
+    new Random(1).nextBytes(data);
+
+    val compressed = compress(data, 4, 1000);
+
+    assertThat(decompress(compressed)).isEqualTo(data);
+  }
+
+  @Test
+  public void testEmpty() throws Exception {
+    val buffer = new ByteArrayOutputStream();
+    new ParallelGzipOutputStream(buffer, 2, 1000).close();
+    val compressed = buffer.toByteArray();
+
+    assertThat(decompress(compressed)).isEmpty();
+  }
+
+  private static byte[] compress(byte[] data, int threads, int blockSize) throws Exception {
+    val buffer = new ByteArrayOutputStream();
+    val out = new ParallelGzipOutputStream(buffer, threads, blockSize);
+
+    // Mix of single byte and partial block writes
+    out.write(data[0] & 0xFF);
+    out.write(data, 1, data.length / 2);
+    out.write(data, 1 + data.length / 2, data.length - 1 - data.length / 2);
+    out.close();
+
+    return buffer.toByteArray();
+  }
+
+  private static byte[] decompress(byte[] compressed) throws Exception {
+    return ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed)));
+  }
+
+}
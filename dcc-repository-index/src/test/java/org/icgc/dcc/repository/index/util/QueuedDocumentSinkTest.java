@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.icgc.dcc.repository.index.model.DocumentType;
+import org.icgc.dcc.repository.index.model.SerializedDocument;
+import org.junit.Test;
+
+import lombok.val;
+
+public class QueuedDocumentSinkTest {
+
+  @Test
+  public void testCloseDrainsQueue() throws IOException {
+    List<String> written = new CopyOnWriteArrayList<>();
+    val sink = new QueuedDocumentSink("test-sink", 2, document -> {
+      sleep(1); // Slower than the producer so that the queue fills up
+      written.add(document.getId());
+    });
+
+    for (int i = 0; i < 100; i++) {
+      sink.write(createDocument(i));
+    }
+    sink.close();
+
+    assertThat(written).hasSize(100);
+    assertThat(written.get(0)).isEqualTo("0");
+    assertThat(written.get(99)).isEqualTo("99");
+  }
+
+  @Test
+  public void testFailurePropagates() throws IOException {
+    val sink = new QueuedDocumentSink("test-sink", 2, document -> {
+      throw new IOException("Boom");
+    });
+
+    try {
+      // The producer must not block forever on a sink that stopped draining
+      for (int i = 0; i < 100; i++) {
+        sink.write(createDocument(i));
+      }
+
+      sink.close();
+      fail("Expected failure");
+    } catch (IOException e) {
+      assertThat(e.getCause()).hasMessage("Boom");
+    }
+  }
+
+  private static SerializedDocument createDocument(int i) {
+    return new SerializedDocument(String.valueOf(i), () -> DocumentType.FILE_TEXT.getId(), "{}".getBytes(UTF_8));
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+}
@@ -17,7 +17,6 @@
  */
 package org.icgc.dcc.repository.pcawg;
 
-import static org.icgc.dcc.common.core.util.Formats.formatCount;
 import static org.icgc.dcc.repository.core.model.RepositorySource.PCAWG;
 import static org.icgc.dcc.repository.pcawg.reader.PCAWGDonorArchiveReader.DEFAULT_PCAWG_DONOR_ARCHIVE_URL;
 
@@ -26,13 +25,12 @@ import java.net.URL;
 import org.icgc.dcc.repository.core.RepositoryFileContext;
 import org.icgc.dcc.repository.core.model.RepositoryFile;
 import org.icgc.dcc.repository.core.util.GenericRepositorySourceFileImporter;
+import org.icgc.dcc.repository.pcawg.core.PCAWGDonorArchive;
 import org.icgc.dcc.repository.pcawg.core.PCAWGFileProcessor;
-import org.icgc.dcc.repository.pcawg.reader.PCAWGDonorArchiveReader;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import lombok.NonNull;
-import lombok.SneakyThrows;
 import lombok.val;
 import lombok.extern.slf4j.Slf4j;
 
@@ -56,21 +54,13 @@ public class PCAWGImporter extends GenericRepositorySourceFileImporter {
 
   @Override
   protected Iterable<RepositoryFile> readFiles() {
-    log.info("Reading donors...");
+    // Donors are read and processed as the files are written
     val donors = readDonors();
-    log.info("Finished reading {} donors", formatCount(donors));
-
-    log.info("Processing donor files...");
-    val files = processFiles(donors);
-    log.info("Finished processing {} donor files", formatCount(files));
-
-    return files;
+    return processFiles(donors);
   }
 
-  @SneakyThrows
   private Iterable<ObjectNode> readDonors() {
-    val reader = new PCAWGDonorArchiveReader(archiveUrl);
-    return reader.readDonors();
+    return PCAWGDonorArchive.getArchive(archiveUrl).readDonors();
   }
 
   private Iterable<RepositoryFile> processFiles(Iterable<ObjectNode> donors) {
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.pcawg.core;
+
+import static org.icgc.dcc.common.core.util.stream.Collectors.toImmutableSet;
+import static org.icgc.dcc.common.core.util.stream.Streams.stream;
+import static org.icgc.dcc.repository.core.http.RepositoryHttpClient.getClient;
+import static org.icgc.dcc.repository.core.model.RepositorySource.PCAWG;
+import static org.icgc.dcc.repository.pcawg.core.PCAWGDonorIdResolver.qualifyDonorId;
+import static org.icgc.dcc.repository.pcawg.reader.PCAWGDonorArchiveReader.DEFAULT_PCAWG_DONOR_ARCHIVE_URL;
+import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getDccProjectCode;
+import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getSubmitterDonorId;
+
+import java.io.File;
+import java.net.URL;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.icgc.dcc.repository.core.http.RepositoryHttpClient;
+import org.icgc.dcc.repository.core.model.RepositoryFile;
+import org.icgc.dcc.repository.pcawg.reader.PCAWGDonorArchiveReader;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Process-wide access to the PCAWG donor archive.
+ * <p>
+ * The archive is downloaded at most once per process into the {@link RepositoryHttpClient} disk cache, which is
+ * revalidated against the server, so unchanged archives are not transferred again across runs. Donor ids and the
+ * object id file index are derived once and shared by all consumers.
+ */
+@Slf4j
+public class PCAWGDonorArchive {
+
+  /**
+   * Shared instances keyed by archive URL. Keyed by string since {@link URL#equals} resolves hosts.
+   */
+  private static final Map<String, PCAWGDonorArchive> ARCHIVES = new ConcurrentHashMap<>();
+
+  /**
+   * Configuration.
+   */
+  @NonNull
+  private final URL archiveUrl;
+
+  /**
+   * Dependencies.
+   */
+  @NonNull
+  private final RepositoryHttpClient httpClient;
+
+  /**
+   * State.
+   */
+  @Getter(lazy = true)
+  private final File archiveFile = fetchArchive();
+  @Getter(lazy = true)
+  private final Set<String> submittedDonorIds = resolveSubmittedDonorIds();
+  @Getter(lazy = true)
+  private final Multimap<String, RepositoryFile> filesByObjectId = resolveFilesByObjectId();
+
+  public static PCAWGDonorArchive getArchive() {
+    return getArchive(DEFAULT_PCAWG_DONOR_ARCHIVE_URL);
+  }
+
+  public static PCAWGDonorArchive getArchive(@NonNull URL archiveUrl) {
+    return ARCHIVES.computeIfAbsent(archiveUrl.toString(),
+        url -> new PCAWGDonorArchive(archiveUrl, getClient(PCAWG.getId())));
+  }
+
+  PCAWGDonorArchive(@NonNull URL archiveUrl, @NonNull RepositoryHttpClient httpClient) {
+    this.archiveUrl = archiveUrl;
+    this.httpClient = httpClient;
+  }
+
+  /**
+   * @return donors streamed from the locally cached archive on each iteration
+   */
+  public Iterable<ObjectNode> readDonors() {
+    val reader = new PCAWGDonorArchiveReader(getArchiveFile());
+    return reader.readDonors();
+  }
+
+  private Set<String> resolveSubmittedDonorIds() {
+    log.info("Collecting PCAWG study donor ids...");
+    val submittedDonorIds = stream(readDonors())
+        .map(donor -> qualifyDonorId(getDccProjectCode(donor), getSubmitterDonorId(donor)))
+        .collect(toImmutableSet());
+    log.info("Finished collecting {} PCAWG study donor ids", submittedDonorIds.size());
+
+    return submittedDonorIds;
+  }
+
+  private Multimap<String, RepositoryFile> resolveFilesByObjectId() {
+    val watch = Stopwatch.createStarted();
+    log.info("Resolving PCAWG files...");
+
+    // Only file copies are looked up, so ids and the other context derived fields are not assigned
+    val files = Multimaps.index(PCAWGFileProcessor.createFiles(readDonors()), RepositoryFile::getObjectId);
+    log.info("Resolved {} PCAWG files in {}", files.size(), watch);
+
+    return files;
+  }
+
+  @SneakyThrows
+  private File fetchArchive() {
+    val watch = Stopwatch.createStarted();
+    log.info("Fetching PCAWG donor archive '{}'...", archiveUrl);
+    val file = httpClient.download(archiveUrl);
+    log.info("Fetched PCAWG donor archive to '{}' in {}", file, watch);
+
+    return file;
+  }
+
+}
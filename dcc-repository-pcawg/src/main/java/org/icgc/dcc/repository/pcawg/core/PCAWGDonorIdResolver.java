@@ -17,63 +17,24 @@
  */
 package org.icgc.dcc.repository.pcawg.core;
 
-import static org.icgc.dcc.common.core.util.stream.Collectors.toImmutableSet;
-import static org.icgc.dcc.common.core.util.stream.Streams.stream;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getDccProjectCode;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getSubmitterDonorId;
-
 import java.util.Set;
 
 import org.icgc.dcc.repository.core.RepositoryIdResolver;
-import org.icgc.dcc.repository.pcawg.reader.PCAWGDonorArchiveReader;
-
-import com.fasterxml.jackson.databind.node.ObjectNode;
-
-import lombok.SneakyThrows;
-import lombok.val;
-import lombok.extern.slf4j.Slf4j;
 
-@Slf4j
 public class PCAWGDonorIdResolver implements RepositoryIdResolver {
 
   @Override
   public Set<String> resolveIds() {
-    val donors = readDonors();
-
-    log.info("Collecting PCAWG study donor ids...");
-    val submittedDonorIds = stream(donors)
-        .map(donor -> qualifyDonorId(donor))
-        .collect(toImmutableSet());
-    log.info("Finish collecting PCAWG study donor ids");
-
-    return submittedDonorIds;
+    return PCAWGDonorArchive.getArchive().getSubmittedDonorIds();
   }
 
   @Override
   public Set<String> resolveIds(String esSearchUrl) {
-    val donors = readDonors();
-
-    log.info("Collecting PCAWG study donor ids...");
-    val submittedDonorIds = stream(donors)
-        .map(donor -> qualifyDonorId(donor))
-        .collect(toImmutableSet());
-    log.info("Finish collecting PCAWG study donor ids");
-
-    return submittedDonorIds;
+    return PCAWGDonorArchive.getArchive().getSubmittedDonorIds();
   }
 
   public static String qualifyDonorId(String projectCode, String submittedDonorId) {
     return projectCode + ":" + submittedDonorId;
   }
 
-  private static String qualifyDonorId(ObjectNode donor) {
-    return qualifyDonorId(getDccProjectCode(donor), getSubmitterDonorId(donor));
-  }
-
-  @SneakyThrows
-  private Iterable<ObjectNode> readDonors() {
-    val reader = new PCAWGDonorArchiveReader();
-    return reader.readDonors();
-  }
-
 }
@@ -20,6 +20,7 @@ package org.icgc.dcc.repository.pcawg.core;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -55,14 +56,41 @@ import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.*;
 @Slf4j
 public class PCAWGFileProcessor extends RepositoryFileProcessor {
 
+    /**
+     * Constants.
+     */
+    private static final int DONOR_BATCH_SIZE = 100;
+
     public PCAWGFileProcessor(RepositoryFileContext context) {
         super(context);
     }
 
+    /**
+     * @return files created lazily from small batches of donors as they are iterated. The files of a donor only depend
+     * on the donor itself, so no more than a batch is ever held in memory.
+     */
     public Iterable<RepositoryFile> processDonors(@NonNull Iterable<ObjectNode> donors) {
-        log.info("Creating donor files...");
+        return () -> {
+            Iterable<List<ObjectNode>> batches = () -> Iterators.partition(donors.iterator(), DONOR_BATCH_SIZE);
+            return stream(batches).map(this::processDonorBatch).flatMap(List::stream).iterator();
+        };
+    }
+
+    /**
+     * @return files created lazily from {@code donors} without ICGC ids, primary sites or TCGA identifiers. Enough to
+     * look up PCAWG file copies by object id without a context.
+     */
+    public static Iterable<RepositoryFile> createFiles(@NonNull Iterable<ObjectNode> donors) {
+        return () -> stream(donors).map(PCAWGFileProcessor::processDonor).flatMap(List::stream).iterator();
+    }
+
+    private List<RepositoryFile> processDonorBatch(List<ObjectNode> donors) {
+        log.info("Creating files of {} donors...", donors.size());
         val donorFiles = createDonorFiles(donors);
 
+        log.info("Assigning file ids and primary sites...");
+        assignFileIds(donorFiles);
+
         log.info("Translating TCGC UUIDs...");
         translateUUIDs(donorFiles);
 
@@ -72,11 +100,25 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
         return donorFiles;
     }
 
-    private Iterable<RepositoryFile> createDonorFiles(Iterable<ObjectNode> donors) {
-        return stream(donors).map(this::processDonor).flatMap(List::stream).collect(toImmutableList());
+    private void assignFileIds(Iterable<RepositoryFile> donorFiles) {
+        for (val donorFile : donorFiles) {
+            donorFile.setId(context.ensureFileId(donorFile.getObjectId()));
+            for (val fileCopy : donorFile.getFileCopies()) {
+                val indexFile = fileCopy.getIndexFile();
+                if (indexFile.getObjectId() != null) {
+                    indexFile.setId(context.ensureFileId(indexFile.getObjectId()));
+                }
+            }
+        }
+
+        eachFileDonor(donorFiles, donor -> donor.setPrimarySite(context.getPrimarySite(donor.getProjectCode())));
+    }
+
+    private static List<RepositoryFile> createDonorFiles(List<ObjectNode> donors) {
+        return donors.stream().map(PCAWGFileProcessor::processDonor).flatMap(List::stream).collect(toImmutableList());
     }
 
-    private List<RepositoryFile> processDonor(@NonNull ObjectNode donor) {
+    private static List<RepositoryFile> processDonor(@NonNull ObjectNode donor) {
         // Process general files
         val donorFiles = ImmutableList.<RepositoryFile>builder();
         for (val libraryStrategy : PCAWG_LIBRARY_STRATEGIES) {
@@ -117,8 +159,8 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
         return donorFiles.build();
     }
 
-    private RepositoryFile createDonorFile(String projectCode, String submittedDonorId, Analysis analysis,
-                                           JsonNode workflow, JsonNode workflowFile) {
+    private static RepositoryFile createDonorFile(String projectCode, String submittedDonorId, Analysis analysis,
+                                                  JsonNode workflow, JsonNode workflowFile) {
 
         //
         // Prepare
@@ -148,7 +190,7 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
         //
 
         val donorFile = new RepositoryFile()
-                .setId(context.ensureFileId(objectId))
+                .setId(null) // Set downstream
                 .setObjectId(objectId)
                 .setStudy(ImmutableList.of(Study.PCAWG))
                 .setAccess(FileAccess.CONTROLLED);
@@ -187,7 +229,6 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
                 val baiFileName = getFileName(baiFile.get());
                 val baiObjectId = resolveObjectId(gnosId, baiFileName);
                 fileCopy.getIndexFile()
-                        .setId(context.ensureFileId(baiObjectId))
                         .setObjectId(baiObjectId)
                         .setRepoFileId(null) // TODO: Resolve
                         .setFileName(baiFileName)
@@ -199,7 +240,6 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
                 val tbiFileName = getFileName(tbiFile.get());
                 val tbiObjectId = resolveObjectId(gnosId, tbiFileName);
                 fileCopy.getIndexFile()
-                        .setId(context.ensureFileId(tbiObjectId))
                         .setObjectId(tbiObjectId)
                         .setFileName(tbiFileName)
                         .setFileFormat(FileFormat.TBI)
@@ -210,7 +250,6 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
                 val idxFileName = getFileName(idxFile.get());
                 val idxObjectId = resolveObjectId(gnosId, idxFileName);
                 fileCopy.getIndexFile()
-                        .setId(context.ensureFileId(idxObjectId))
                         .setObjectId(idxObjectId)
                         .setFileName(idxFileName)
                         .setFileFormat(FileFormat.IDX)
@@ -220,7 +259,7 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
         }
 
         donorFile.addDonor()
-                .setPrimarySite(context.getPrimarySite(projectCode))
+                .setPrimarySite(null) // Set downstream
                 .setProgram(project.getProgram())
                 .setProjectCode(projectCode)
                 .setStudy(Study.PCAWG)
@@ -4,7 +4,8 @@ import static com.fasterxml.jackson.core.JsonParser.Feature.AUTO_CLOSE_SOURCE;
 import static org.icgc.dcc.common.core.util.URLs.getUrl;
 import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.PCAWG_ARCHIVE_BASE_URL;
 
-import java.io.IOException;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.InputStream;
 import java.net.URL;
 
@@ -12,9 +13,8 @@ import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.google.common.collect.ImmutableList;
+import com.google.common.collect.AbstractIterator;
 
-import lombok.Cleanup;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
@@ -45,27 +45,59 @@ public class PCAWGDonorArchiveReader {
    * State.
    */
   @NonNull
-  private final URL donorArchiveUrl;
+  private final File donorArchiveFile;
 
-  public PCAWGDonorArchiveReader() {
-    this.donorArchiveUrl = DEFAULT_PCAWG_DONOR_ARCHIVE_URL;
-  }
-
-  public Iterable<ObjectNode> readDonors() throws IOException {
-    log.info("Reading donors from '{}'...", donorArchiveUrl);
-
-    @Cleanup
-    val iterator = readValues();
-    return ImmutableList.copyOf(iterator);
+  /**
+   * @return donors read one line at a time on each iteration, rather than the whole archive held in memory. Reads a
+   * local copy, such as the one downloaded by {@code PCAWGDonorArchive}, so an abandoned iteration holds no connection.
+   */
+  public Iterable<ObjectNode> readDonors() {
+    return () -> new DonorIterator(openStream());
   }
 
-  private MappingIterator<ObjectNode> readValues() throws IOException {
-    return READER.readValues(openStream());
+  @SneakyThrows
+  private static MappingIterator<ObjectNode> readValues(InputStream inputStream) {
+    return READER.readValues(inputStream);
   }
 
   @SneakyThrows
   private InputStream openStream() {
-    return donorArchiveUrl.openStream();
+    log.info("Reading donors from '{}'...", donorArchiveFile);
+    return new FileInputStream(donorArchiveFile);
+  }
+
+  private static class DonorIterator extends AbstractIterator<ObjectNode> {
+
+    private final InputStream inputStream;
+    private final MappingIterator<ObjectNode> values;
+
+    private DonorIterator(InputStream inputStream) {
+      this.inputStream = inputStream;
+      this.values = readValues(inputStream);
+    }
+
+    @Override
+    protected ObjectNode computeNext() {
+      try {
+        if (values.hasNext()) {
+          return values.next();
+        }
+      } catch (RuntimeException e) {
+        close();
+        throw e;
+      }
+
+      close();
+      return endOfData();
+    }
+
+    @SneakyThrows
+    private void close() {
+      // The mapper does not close its source
+      values.close();
+      inputStream.close();
+    }
+
   }
 
 }
\ No newline at end of file
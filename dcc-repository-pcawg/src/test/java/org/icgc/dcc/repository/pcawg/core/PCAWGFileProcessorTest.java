@@ -18,6 +18,7 @@
 package org.icgc.dcc.repository.pcawg.core;
 
 import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.icgc.dcc.common.core.json.Jackson.DEFAULT;
 import static org.icgc.dcc.repository.core.util.RepositoryFileContexts.newLocalRepositoryFileContext;
 
@@ -28,6 +29,7 @@ import org.junit.Test;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
 import com.google.common.io.Resources;
 
 import lombok.val;
@@ -46,6 +48,21 @@ public class PCAWGFileProcessorTest {
     }
   }
 
+  @Test
+  public void testCreateFiles() throws Exception {
+    val files = ImmutableList.copyOf(PCAWGFileProcessor.createFiles(readDonors()));
+
+    assertThat(files).isNotEmpty();
+    for (val file : files) {
+      // Context derived fields are left to the processor
+      assertThat(file.getObjectId()).isNotNull();
+      assertThat(file.getId()).isNull();
+      for (val donor : file.getDonors()) {
+        assertThat(donor.getPrimarySite()).isNull();
+      }
+    }
+  }
+
   public Set<ObjectNode> readDonors() throws IOException, JsonProcessingException {
     val resource = Resources.getResource("fixtures/donor.with-consensus.json");
     val donor = (ObjectNode) DEFAULT.readTree(resource);
@@ -19,18 +19,22 @@ package org.icgc.dcc.repository.pdc;
 
 import static org.icgc.dcc.common.core.util.Formats.formatCount;
 import static org.icgc.dcc.repository.core.model.Repositories.getPDCRepository;
+import static org.icgc.dcc.repository.core.model.RepositorySource.PCAWG;
 import static org.icgc.dcc.repository.core.model.RepositorySource.PDC;
 import static org.icgc.dcc.repository.pdc.s3.AWSClientFactory.createProtectedS3Client;
 
-import java.util.List;
+import java.util.Set;
 
 import org.icgc.dcc.repository.core.RepositoryFileContext;
 import org.icgc.dcc.repository.core.model.RepositoryFile;
+import org.icgc.dcc.repository.core.model.RepositorySource;
 import org.icgc.dcc.repository.core.util.GenericRepositorySourceFileImporter;
 import org.icgc.dcc.repository.pdc.core.PDCFileProcessor;
 import org.icgc.dcc.repository.pdc.s3.PDCBucketReader;
 
+import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.google.common.collect.ImmutableSet;
 
 import lombok.NonNull;
 import lombok.val;
@@ -39,15 +43,31 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class PDCImporter extends GenericRepositorySourceFileImporter {
 
+  /**
+   * Dependencies.
+   */
+  @NonNull
+  private final AmazonS3 s3;
+
   public PDCImporter(@NonNull RepositoryFileContext context) {
+    this(context, createProtectedS3Client());
+  }
+
+  public PDCImporter(@NonNull RepositoryFileContext context, @NonNull AmazonS3 s3) {
     super(PDC, context, log);
+    this.s3 = s3;
+  }
+
+  @Override
+  public Set<RepositorySource> getDependencies() {
+    // PDC files are resolved against the PCAWG donor archive
+    return ImmutableSet.of(PCAWG);
   }
 
   @Override
   protected Iterable<RepositoryFile> readFiles() {
-    log.info("Reading object summaries...");
+    // Object summaries are listed as they are processed
     val objectSummaries = readObjectSummaries();
-    log.info("Read {} object summaries", formatCount(objectSummaries));
 
     log.info("Processing files...");
     val files = processFiles(objectSummaries);
@@ -56,12 +76,12 @@ public class PDCImporter extends GenericRepositorySourceFileImporter {
     return files;
   }
 
-  private List<S3ObjectSummary> readObjectSummaries() {
-    val bucketReader = new PDCBucketReader(createProtectedS3Client());
-    return bucketReader.readSummaries();
+  private Iterable<S3ObjectSummary> readObjectSummaries() {
+    val bucketReader = new PDCBucketReader(s3, context.getReadConcurrency());
+    return bucketReader.streamSummaries();
   }
 
-  private Iterable<RepositoryFile> processFiles(List<S3ObjectSummary> objectSummaries) {
+  private Iterable<RepositoryFile> processFiles(Iterable<S3ObjectSummary> objectSummaries) {
     val fileProcessor = new PDCFileProcessor(context, getPDCRepository());
     return fileProcessor.processFiles(objectSummaries);
   }
@@ -17,10 +17,11 @@
  */
 package org.icgc.dcc.repository.pdc.core;
 
-import static java.util.stream.Collectors.toList;
+import static com.google.common.collect.Maps.immutableEntry;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import org.icgc.dcc.repository.core.RepositoryFileContext;
 import org.icgc.dcc.repository.core.RepositoryFileProcessor;
@@ -30,6 +31,8 @@ import org.icgc.dcc.repository.core.model.RepositoryFile.FileCopy;
 import org.icgc.dcc.repository.pdc.util.PCAWGFileResolver;
 
 import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
 
 import lombok.NonNull;
 import lombok.val;
@@ -55,24 +58,29 @@ public class PDCFileProcessor extends RepositoryFileProcessor {
     log.warn("No XML files will be indexed!");
   }
 
-  public Iterable<RepositoryFile> processFiles(List<S3ObjectSummary> objectSummaries) {
-    return objectSummaries.stream()
-        .filter(this::isIncluded)
-        .map(file -> createFile(file, objectSummaries))
-        .collect(toList());
-  }
+  public Iterable<RepositoryFile> processFiles(Iterable<S3ObjectSummary> objectSummaries) {
+    // Single pass over the listing: keep every object size for index file lookups but only retain included summaries
+    val objectSizes = Maps.<String, Long> newHashMap();
+    val includedFiles = ImmutableList.<Entry<S3ObjectSummary, FileCopy>> builder();
+    for (val objectSummary : objectSummaries) {
+      objectSizes.putIfAbsent(resolveObjectId(objectSummary), objectSummary.getSize());
 
-  private FileCopy resolvePCAWGFileCopy(String objectId) {
-    return resolvePCAWGFile(objectId).getFileCopies().get(0);
-  }
+      val pcawgFile = resolvePCAWGFile(resolveObjectId(objectSummary));
+      if (isIncluded(pcawgFile)) {
+        includedFiles.add(immutableEntry(objectSummary, pcawgFile.getFileCopies().get(0)));
+      }
+    }
+    log.info("Read {} object summaries", formatCount(objectSizes.size()));
 
-  private Optional<S3ObjectSummary> resolveObjectSummary(List<S3ObjectSummary> objectSummaries, String objectId) {
-    return objectSummaries.stream().filter(s -> s.getKey().equals(objectId)).findFirst();
+    val files = ImmutableList.<RepositoryFile> builder();
+    for (val includedFile : includedFiles.build()) {
+      files.add(createFile(includedFile.getKey(), includedFile.getValue(), objectSizes));
+    }
+
+    return files.build();
   }
 
-  private boolean isIncluded(S3ObjectSummary objectSummary) {
-    val objectId = resolveObjectId(objectSummary);
-    val pcawgFile = resolvePCAWGFile(objectId);
+  private static boolean isIncluded(RepositoryFile pcawgFile) {
     if (pcawgFile == null) {
       return false;
     }
@@ -85,9 +93,9 @@ public class PDCFileProcessor extends RepositoryFileProcessor {
     return true;
   }
 
-  private RepositoryFile createFile(S3ObjectSummary objectSummary, List<S3ObjectSummary> objectSummaries) {
+  private RepositoryFile createFile(S3ObjectSummary objectSummary, FileCopy pcawgFileCopy,
+      Map<String, Long> objectSizes) {
     val objectId = resolveObjectId(objectSummary);
-    val pcawgFileCopy = resolvePCAWGFileCopy(objectId);
 
     val objectFile = new RepositoryFile()
         .setId(context.ensureFileId(objectId))
@@ -115,13 +123,13 @@ public class PDCFileProcessor extends RepositoryFileProcessor {
 
     if (pcawgFileCopy.getIndexFile() != null) {
       val pcawgIndexFile = pcawgFileCopy.getIndexFile();
-      val indexSummary = resolveObjectSummary(objectSummaries, pcawgIndexFile.getObjectId());
-      if (indexSummary.isPresent()) {
+      val indexSize = objectSizes.get(pcawgIndexFile.getObjectId());
+      if (indexSize != null) {
         fileCopy.getIndexFile()
             .setId(context.ensureFileId(pcawgIndexFile.getObjectId()))
             .setObjectId(pcawgIndexFile.getObjectId())
             .setFileName(pcawgIndexFile.getFileName())
-            .setFileSize(indexSummary.get().getSize())
+            .setFileSize(indexSize)
             .setFileMd5sum(pcawgIndexFile.getFileMd5sum())
             .setFileFormat(pcawgIndexFile.getFileFormat());
       }
@@ -50,7 +50,7 @@ public class AWSClientFactory {
     return createS3Client(PDC_CS_PROTECTED_S3_ENDPOINT, new ProfileCredentialsProvider(PDC_CS_PROTECTED_AWS_PROFILE));
   }
 
-  private static AmazonS3 createS3Client(String url, AWSCredentialsProvider credentialsProvider) {
+  public static AmazonS3 createS3Client(String url, AWSCredentialsProvider credentialsProvider) {
     // Required for current version of Rados Gateway
     SignerFactory.registerSigner("S3Signer", S3Signer.class);
     val clientConfiguration = new ClientConfiguration().withSignerOverride("S3Signer");
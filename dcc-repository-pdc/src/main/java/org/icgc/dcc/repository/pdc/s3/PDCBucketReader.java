@@ -29,7 +29,11 @@ import lombok.val;
 public class PDCBucketReader extends CloudS3BucketReader {
 
   public PDCBucketReader(AmazonS3 s3) {
-    super("" /* Not used */, "" /* Not used */, s3);
+    this(s3, 1);
+  }
+
+  public PDCBucketReader(AmazonS3 s3, int concurrency) {
+    super("" /* Not used */, "" /* Not used */, s3, concurrency);
   }
 
   @Override
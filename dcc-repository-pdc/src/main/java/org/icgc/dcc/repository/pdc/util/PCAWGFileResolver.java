@@ -18,42 +18,20 @@
 package org.icgc.dcc.repository.pdc.util;
 
 import static com.google.common.collect.Iterables.getFirst;
-import static lombok.AccessLevel.PRIVATE;
-import static org.icgc.dcc.repository.core.model.RepositorySource.PCAWG;
 
-import java.io.IOException;
-import java.util.Set;
-
-import org.icgc.dcc.repository.core.RepositoryFileContext;
-import org.icgc.dcc.repository.core.RepositoryFileContextBuilder;
-import org.icgc.dcc.repository.core.RepositoryIdResolver;
 import org.icgc.dcc.repository.core.model.RepositoryFile;
-import org.icgc.dcc.repository.pcawg.core.PCAWGFileProcessor;
-import org.icgc.dcc.repository.pcawg.reader.PCAWGDonorArchiveReader;
-
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.google.common.base.Stopwatch;
-import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
+import org.icgc.dcc.repository.pcawg.core.PCAWGDonorArchive;
 
-import lombok.Getter;
 import lombok.NonNull;
-import lombok.SneakyThrows;
 import lombok.val;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class PCAWGFileResolver {
 
-  /**
-   * State.
-   */
-  @Getter(lazy = true, value = PRIVATE)
-  private final Multimap<String, RepositoryFile> files = resolveFiles();
-
   public RepositoryFile resolve(@NonNull String objectId) {
-    val files = getFiles().get(objectId);
+    // Shared with the other PCAWG archive consumers so the archive is fetched and indexed once per process
+    val files = PCAWGDonorArchive.getArchive().getFilesByObjectId().get(objectId);
     if (files.size() > 1) {
       log.warn("More than one file found for object id {}: {}", objectId, files);
     }
@@ -61,59 +39,4 @@ public class PCAWGFileResolver {
     return getFirst(files, null);
   }
 
-  @SneakyThrows
-  private static Multimap<String, RepositoryFile> resolveFiles() {
-    val watch = Stopwatch.createStarted();
-    val context = createFileContext();
-
-    log.info("Resolving PCAWG files...");
-    val donors = readDonors();
-    val files = readFiles(context, donors);
-    log.info("Resolved PCAWG files in {}", watch);
-
-    return Multimaps.index(files, RepositoryFile::getObjectId);
-  }
-
-  public static Iterable<ObjectNode> readDonors() throws IOException {
-    return new PCAWGDonorArchiveReader().readDonors();
-  }
-
-  public static Iterable<RepositoryFile> readFiles(RepositoryFileContext context, Iterable<ObjectNode> donors) {
-    return new PCAWGFileProcessor(context) {
-
-      @Override
-      protected void translateUUIDs(Iterable<RepositoryFile> donorFiles) {
-        // No-op since this takes a while and is not needed here.
-      };
-
-    }.processDonors(donors);
-  }
-
-  private static RepositoryFileContext createFileContext() {
-    return RepositoryFileContextBuilder
-        .builder()
-        .importMongoUri(null)
-        .realIds(false)
-        .sources(ImmutableSet.of(PCAWG))
-        .indexAlias("")
-        .pcawgIdResolver(newEmptyIdResovler())
-        .dccIdResolver(newEmptyIdResovler())
-        .build();
-  }
-
-  private static RepositoryIdResolver newEmptyIdResovler() {
-    return new RepositoryIdResolver() {
-
-      @Override
-      public Set<String> resolveIds(String esSearchUrl) {
-        return ImmutableSet.of();
-      }
-
-      @Override
-      public Set<String> resolveIds() {
-        return ImmutableSet.of();
-      }
-    };
-  }
-
 }
@@ -45,7 +45,7 @@ public abstract class SongImporter extends GenericRepositorySourceFileImporter {
   public SongImporter(@NonNull RepositoryFileContext context, @NonNull Repository repository,
       @NonNull URL songUrl, @NonNull String songToken, @NonNull Set<AnalysisStates> analysisStates) {
     super(repository.getSource(), context, log);
-    this.reader = new SongClient(songUrl, songToken);
+    this.reader = new SongClient(songUrl, songToken, context.getReadConcurrency());
     this.processor = new SongProcessor(context, repository);
     this.analysisStates = analysisStates;
   }
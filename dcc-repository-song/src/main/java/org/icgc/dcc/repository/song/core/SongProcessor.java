@@ -18,6 +18,8 @@
 package org.icgc.dcc.repository.song.core;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -45,9 +47,8 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
-import static java.util.stream.StreamSupport.stream;
+import static org.icgc.dcc.repository.core.util.ConcurrentIterators.transform;
 import static org.icgc.dcc.repository.song.model.SongAnalysis.Field.analysisId;
 import static org.icgc.dcc.repository.song.model.SongAnalysis.Field.analysisType;
 import static org.icgc.dcc.repository.song.model.SongDonor.Field.donorSubmitterId;
@@ -66,6 +67,8 @@ import static org.icgc.dcc.repository.song.model.SongVariantCall.Field.variantCa
 
 @Slf4j
 public class SongProcessor extends RepositoryFileProcessor {
+  private static final int PENDING_ANALYSES_PER_THREAD = 10;
+
   @NonNull
   private final Repository repository;
 
@@ -97,8 +100,10 @@ public class SongProcessor extends RepositoryFileProcessor {
   }
 
   public Iterable<RepositoryFile> getRepositoryFiles(Iterable<SongAnalysis> analyses) {
-    val files = stream(analyses.spliterator(), false).
-      flatMap(this::convertFiles).collect(Collectors.toList());
+    val files = convertAnalyses(analyses);
+
+    log.info("Assigning studies...");
+    assignStudy(files);
 
     log.info("Translating TCGC UUIDs...");
     translateUUIDs(files);
@@ -109,6 +114,20 @@ public class SongProcessor extends RepositoryFileProcessor {
     return files;
   }
 
+  /**
+   * Converts analyses concurrently, keeping the order of the analyses. Conversion is dominated by file id requests, so
+   * it is bounded by the id concurrency. Ids of donors, specimens and samples are assigned afterwards in bulk.
+   */
+  private List<RepositoryFile> convertAnalyses(Iterable<SongAnalysis> analyses) {
+    val threads = context.getIdConcurrency();
+    log.info("Converting analyses using {} threads...", threads);
+
+    val files = transform("song-convert", analyses.iterator(), threads, threads * PENDING_ANALYSES_PER_THREAD,
+        analysis -> convertFiles(analysis).collect(Collectors.toList()));
+
+    return Lists.newArrayList(Iterators.concat(Iterators.transform(files, List::iterator)));
+  }
+
   public Stream<RepositoryFile> convertFiles(SongAnalysis analysis) {
     return analysis.getFiles().stream().
       filter(f -> isDataFile(f)).
@@ -134,9 +153,6 @@ public class SongProcessor extends RepositoryFileProcessor {
       .setFileCopies(getFileCopies(a, f))
       .setDonors(getDonors(a));
 
-    assignStudy(singleton(repoFile));
-    assignIds(singleton(repoFile), !repository.getSource().equals(RepositorySource.SONGPDC));
-
     return repoFile;
   }
 
@@ -19,8 +19,10 @@ package org.icgc.dcc.repository.song.reader;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.io.Resources;
+import lombok.SneakyThrows;
 import org.icgc.dcc.repository.song.model.AnalysisStates;
 
+import java.io.InputStream;
 import java.net.URL;
 import java.util.Set;
 
@@ -44,8 +46,9 @@ public class MockSongClient extends SongClient {
   }
 
   @Override
-  JsonNode getAnalyses(String study, Set<AnalysisStates> analysisStates) {
-    return readJson(resourceFile(study + "/" + analysesURL));
+  @SneakyThrows
+  InputStream openAnalyses(String study, Set<AnalysisStates> analysisStates) {
+    return resourceFile(study + "/" + analysesURL).openStream();
   }
 
 }
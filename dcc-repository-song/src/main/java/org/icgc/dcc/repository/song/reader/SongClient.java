@@ -17,77 +17,119 @@
  */
 package org.icgc.dcc.repository.song.reader;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
+import lombok.Cleanup;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.StringUtils;
+import org.icgc.dcc.repository.core.http.RepositoryHttpClient;
 import org.icgc.dcc.repository.song.model.AnalysisStates;
 import org.icgc.dcc.repository.song.model.SongAnalysis;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import static com.fasterxml.jackson.core.JsonParser.Feature.AUTO_CLOSE_SOURCE;
+import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 import static org.icgc.dcc.common.core.util.Joiners.COMMA;
+import static org.icgc.dcc.repository.core.http.RepositoryHttpClient.getClient;
+import static org.icgc.dcc.repository.core.util.ConcurrentIterators.produce;
 import static org.icgc.dcc.repository.song.model.AnalysisStates.PUBLISHED;
 
 @Slf4j
 public class SongClient {
   private static final ObjectMapper MAPPER = new ObjectMapper().
     configure(AUTO_CLOSE_SOURCE, false);
+  private static final int PENDING_ANALYSES_PER_THREAD = 10;
   private final String songToken;
   private final URL songPath;
+  private final int concurrency;
+  private final RepositoryHttpClient httpClient = getClient("song");
 
   public SongClient(URL path, String token) {
+    this(path, token, 1);
+  }
+
+  /**
+   * @param concurrency the maximum number of studies read at once
+   */
+  public SongClient(URL path, String token, int concurrency) {
+    checkArgument(concurrency > 0, "Concurrency must be positive: %s", concurrency);
     songPath = path;
     songToken = token;
+    this.concurrency = concurrency;
   }
 
   SongClient() {
     songPath = url("http://localhost:8080");
     songToken = null;
+    concurrency = 1;
   }
 
+  /**
+   * Lazily reads the analyses of every study, decoding each analysis as its response streams in. Studies are read in
+   * order unless {@code concurrency} is greater than one, in which case the analyses of studies being fetched at once
+   * are interleaved.
+   */
   public Iterable<SongAnalysis> readAnalyses(Set<AnalysisStates> analysisStates) {
-    val studies = getStudies();
-    return stream(studies)
+    val studyIds = stream(getStudies())
         .map(JsonNode::asText)
-        .flatMap(s -> readStudy(s, analysisStates))
         .collect(Collectors.toList());
-  }
 
-  private Stream<SongAnalysis> readStudy(String studyId, Set<AnalysisStates> analysisStates) {
-    val analyses = getAnalyses(studyId, analysisStates);
-    return createAnalyses(analyses);
+    if (concurrency == 1) {
+      return () -> Iterators.concat(Iterators.transform(studyIds.iterator(), s -> readStudy(s, analysisStates)));
+    }
+
+    return () -> {
+      log.info("Reading {} studies using {} concurrent requests...", studyIds.size(), concurrency);
+      return produce("song-study", studyIds, concurrency, concurrency * PENDING_ANALYSES_PER_THREAD,
+          (studyId, analyses) -> readStudy(studyId, analysisStates, analyses));
+    };
   }
 
-  private Stream<SongAnalysis> createAnalyses(JsonNode analyses) {
-    assert (analyses.isArray());
-    return stream(analyses).map(this::createSongAnalysis);
+  /**
+   * @return the analyses of the study, which own the response and close it once exhausted
+   */
+  AnalysisIterator readStudy(String studyId, Set<AnalysisStates> analysisStates) {
+    return readAnalyses(openAnalyses(studyId, analysisStates));
   }
 
-  private SongAnalysis createSongAnalysis(JsonNode analysis) {
-    return new SongAnalysis(analysis);
+  @SneakyThrows
+  void readStudy(String studyId, Set<AnalysisStates> analysisStates, Consumer<SongAnalysis> analyses) {
+    @Cleanup
+    val iterator = readStudy(studyId, analysisStates);
+    iterator.forEachRemaining(analyses);
   }
 
   JsonNode getStudies() {
     return readJson(songPath + "/studies/all");
   }
 
-  JsonNode getAnalyses(String study, Set<AnalysisStates> analysisStates) {
+  InputStream openAnalyses(String study, Set<AnalysisStates> analysisStates) {
     String analysisStateParamValue;
     if (analysisStates.isEmpty()){
       analysisStateParamValue = PUBLISHED.name();
     } else {
       analysisStateParamValue = COMMA.join(analysisStates);
     }
-    return readJson(songPath + "/studies/" + study + "/analysis?analysisStates="+analysisStateParamValue);
+    return open(url(songPath + "/studies/" + study + "/analysis?analysisStates="+analysisStateParamValue));
   }
 
   JsonNode readJson(String path) {
@@ -96,12 +138,9 @@ public class SongClient {
 
   @SneakyThrows
   JsonNode readJson(URL url) {
-    val connection = url.openConnection();
-    if (StringUtils.isNotEmpty(songToken)) {
-      connection.setRequestProperty("Authorization", "Bearer " + songToken);
-    }
-    log.info("Reading from " + url.toExternalForm());
-    return MAPPER.readTree(connection.getInputStream());
+    @Cleanup
+    val inputStream = open(url);
+    return MAPPER.readTree(inputStream);
   }
 
   @SneakyThrows
@@ -109,6 +148,22 @@ public class SongClient {
     return MAPPER.readTree(s);
   }
 
+  @SneakyThrows
+  InputStream open(URL url) {
+    Map<String, String> headers = StringUtils.isNotEmpty(songToken) ?
+      ImmutableMap.of("Authorization", "Bearer " + songToken) :
+      ImmutableMap.<String, String> of();
+    log.info("Reading from " + url.toExternalForm());
+    return httpClient.open(url, headers);
+  }
+
+  /**
+   * Decodes an array of analyses one element at a time rather than as a single tree.
+   */
+  static AnalysisIterator readAnalyses(InputStream inputStream) {
+    return new AnalysisIterator(inputStream);
+  }
+
   <T> Stream<T> stream(Iterable<T> o) {
     return StreamSupport.stream(o.spliterator(), false);
   }
@@ -118,4 +173,52 @@ public class SongClient {
     return new URL(path);
   }
 
+  /**
+   * Owns the response, which is closed once the last analysis is decoded or decoding fails.
+   */
+  static class AnalysisIterator extends AbstractIterator<SongAnalysis> implements Closeable {
+
+    private final InputStream inputStream;
+    private final JsonParser parser;
+
+    @SneakyThrows
+    private AnalysisIterator(InputStream inputStream) {
+      this.inputStream = inputStream;
+      try {
+        this.parser = MAPPER.getFactory().createParser(inputStream);
+        checkState(parser.nextToken() == START_ARRAY, "Expected an array of analyses");
+      } catch (Exception e) {
+        inputStream.close();
+        throw e;
+      }
+    }
+
+    @Override
+    @SneakyThrows
+    protected SongAnalysis computeNext() {
+      try {
+        if (parser.nextToken() != START_OBJECT) {
+          close();
+          return endOfData();
+        }
+
+        JsonNode analysis = MAPPER.readTree(parser);
+        return new SongAnalysis(analysis);
+      } catch (Exception e) {
+        close();
+        throw e;
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        parser.close();
+      } finally {
+        inputStream.close();
+      }
+    }
+
+  }
+
 }
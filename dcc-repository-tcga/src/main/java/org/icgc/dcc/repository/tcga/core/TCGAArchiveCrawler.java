@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.tcga.core;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.stream.Collectors.toSet;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
+import static org.icgc.dcc.repository.core.util.ConcurrentIterators.transform;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.icgc.dcc.repository.core.http.HttpStatusException;
+import org.icgc.dcc.repository.tcga.model.TCGAArchiveClinicalFile;
+import org.icgc.dcc.repository.tcga.model.TCGAArchiveListEntry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.RateLimiter;
+
+import lombok.Cleanup;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Crawls TCGA clinical archives concurrently.
+ * <p>
+ * Archives are fetched on a bounded pool with per-host rate limiting. I/O errors and server error statuses are retried
+ * with exponential backoff, other failures are not. Results are persisted to an optional JSONL cache keyed by archive URL
+ * and date added, so archives that have not been re-added are never fetched again. Misses and failures are not cached.
+ * The cache is compacted on load, dropping archives that are no longer listed or have been re-added.
+ */
+@Slf4j
+public class TCGAArchiveCrawler {
+
+  /**
+   * Constants.
+   */
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final int PENDING_ARCHIVES_PER_THREAD = 2;
+  private static final double REQUESTS_PER_SECOND_PER_HOST = 10.0;
+  private static final int REQUESTS_PER_ARCHIVE = 2; // Page and manifest
+  private static final int MAX_ATTEMPTS = 4;
+  private static final long INITIAL_BACKOFF_MILLIS = 1000L;
+
+  /**
+   * Configuration.
+   */
+  private final int concurrency;
+  private final File cacheFile;
+
+  /**
+   * Dependencies.
+   */
+  private final TCGAArchiveClinicalFileProcessor processor = new TCGAArchiveClinicalFileProcessor();
+
+  /**
+   * State.
+   */
+  private final Map<String, List<TCGAArchiveClinicalFile>> cache = new ConcurrentHashMap<>();
+  private final Map<String, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+  /**
+   * @param cacheFile the file crawled archives are kept in between runs, or {@code null} to crawl every archive
+   */
+  public TCGAArchiveCrawler(int concurrency, File cacheFile) {
+    this.concurrency = Math.max(concurrency, 1);
+    this.cacheFile = cacheFile;
+  }
+
+  /**
+   * @return the clinical files of each entry, in entry order
+   */
+  @SneakyThrows
+  public List<List<TCGAArchiveClinicalFile>> crawl(@NonNull List<TCGAArchiveListEntry> entries) {
+    val watch = Stopwatch.createStarted();
+    load(entries);
+
+    log.info("Crawling {} archives using {} threads...", formatCount(entries), concurrency);
+
+    // Appended per archive so that an interrupted crawl resumes where it stopped
+    @Cleanup
+    Writer writer = cacheFile == null ?
+        null :
+        new BufferedWriter(new OutputStreamWriter(new FileOutputStream(cacheFile, true), UTF_8));
+    val results = ImmutableList.copyOf(transform("tcga-crawl", entries.iterator(), concurrency,
+        concurrency * PENDING_ARCHIVES_PER_THREAD, entry -> crawlArchive(entry, writer)));
+
+    log.info("Finished crawling {} archives in {}", formatCount(entries), watch);
+    return results;
+  }
+
+  private List<TCGAArchiveClinicalFile> crawlArchive(TCGAArchiveListEntry entry, Writer writer) {
+    val key = formatKey(entry);
+    val cached = cache.get(key);
+    if (cached != null) {
+      log.debug("Using cached archive '{}'", entry.getArchiveUrl());
+      return cached;
+    }
+
+    val clinicalFiles = process(entry.getArchiveUrl());
+    cache.put(key, clinicalFiles);
+    if (writer != null) {
+      append(writer, key, clinicalFiles);
+    }
+
+    return clinicalFiles;
+  }
+
+  @SneakyThrows
+  private List<TCGAArchiveClinicalFile> process(String archiveUrl) {
+    val rateLimiter = rateLimiters.computeIfAbsent(new URL(archiveUrl).getHost(),
+        host -> RateLimiter.create(REQUESTS_PER_SECOND_PER_HOST));
+
+    long backoff = INITIAL_BACKOFF_MILLIS;
+    for (int attempt = 1;; attempt++) {
+      rateLimiter.acquire(REQUESTS_PER_ARCHIVE);
+      try {
+        return processor.process(archiveUrl);
+      } catch (Exception e) {
+        if (attempt == MAX_ATTEMPTS || !isRetryable(e)) {
+          throw e;
+        }
+
+        log.warn("Attempt {} of {} failed for archive '{}': {}. Retrying in {} ms...",
+            attempt, MAX_ATTEMPTS, archiveUrl, e.getMessage(), backoff);
+        Thread.sleep(backoff);
+        backoff *= 2;
+      }
+    }
+  }
+
+  private void load(List<TCGAArchiveListEntry> entries) throws IOException {
+    if (cacheFile == null) {
+      log.info("No archive cache configured. Crawling every archive");
+      return;
+    }
+
+    if (!cacheFile.exists()) {
+      log.info("Creating archive cache '{}'...", cacheFile);
+      return;
+    }
+
+    log.info("Loading archive cache '{}'...", cacheFile);
+    val keys = entries.stream().map(TCGAArchiveCrawler::formatKey).collect(toSet());
+    val lines = Files.readAllLines(cacheFile.toPath(), UTF_8);
+    val retainedLines = Maps.<String, String> newLinkedHashMap();
+    for (val line : lines) {
+      try {
+        val node = MAPPER.readTree(line);
+        val key = node.get("key").textValue();
+        if (keys.contains(key)) {
+          cache.put(key, readClinicalFiles(node.get("files")));
+          retainedLines.put(key, line);
+        }
+      } catch (Exception e) {
+        // Partial line from an interrupted run
+        log.warn("Skipping malformed archive cache line: '{}'", line);
+      }
+    }
+
+    log.info("Loaded {} cached archives", formatCount(cache.size()));
+    if (retainedLines.size() < lines.size()) {
+      compact(retainedLines.values(), lines.size());
+    }
+  }
+
+  /**
+   * Rewrites the cache without stale, duplicate and malformed lines, replacing it atomically so that an interrupted
+   * compaction loses nothing.
+   */
+  private void compact(Collection<String> lines, int lineCount) throws IOException {
+    val tempFile = new File(cacheFile.getPath() + ".tmp");
+    Files.write(tempFile.toPath(), lines, UTF_8);
+    Files.move(tempFile.toPath(), cacheFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+    log.info("Compacted archive cache '{}' from {} to {} lines", cacheFile, formatCount(lineCount),
+        formatCount(lines.size()));
+  }
+
+  private void append(Writer writer, String key, List<TCGAArchiveClinicalFile> clinicalFiles) {
+    val node = MAPPER.createObjectNode();
+    node.put("key", key);
+    val files = node.putArray("files");
+    for (val clinicalFile : clinicalFiles) {
+      files.add(writeClinicalFile(clinicalFile));
+    }
+
+    synchronized (writer) {
+      try {
+        writer.write(MAPPER.writeValueAsString(node));
+        writer.write('\n');
+        writer.flush();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Error appending to archive cache " + cacheFile, e);
+      }
+    }
+  }
+
+  private static List<TCGAArchiveClinicalFile> readClinicalFiles(JsonNode files) {
+    val clinicalFiles = ImmutableList.<TCGAArchiveClinicalFile> builder();
+    for (val file : files) {
+      clinicalFiles.add(new TCGAArchiveClinicalFile(
+          file.get("donorId").textValue(),
+          file.get("fileName").textValue(),
+          file.get("lastModified").longValue(),
+          file.get("fileSize").longValue(),
+          file.get("fileMd5").textValue(),
+          file.get("url").textValue()));
+    }
+
+    return clinicalFiles.build();
+  }
+
+  private static ObjectNode writeClinicalFile(TCGAArchiveClinicalFile clinicalFile) {
+    return MAPPER.createObjectNode()
+        .put("donorId", clinicalFile.getDonorId())
+        .put("fileName", clinicalFile.getFileName())
+        .put("lastModified", clinicalFile.getLastModified())
+        .put("fileSize", clinicalFile.getFileSize())
+        .put("fileMd5", clinicalFile.getFileMd5())
+        .put("url", clinicalFile.getUrl());
+  }
+
+  /**
+   * @return whether the failure may be transient. Missing resources and client errors are not.
+   */
+  static boolean isRetryable(Exception e) {
+    for (val cause : Throwables.getCausalChain(e)) {
+      if (cause instanceof FileNotFoundException) {
+        return false;
+      }
+      if (cause instanceof HttpStatusException) {
+        return ((HttpStatusException) cause).isServerError();
+      }
+      if (cause instanceof IOException) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static String formatKey(TCGAArchiveListEntry entry) {
+    return entry.getArchiveUrl() + " " + entry.getDateAdded();
+  }
+
+}
@@ -24,6 +24,7 @@ import static org.icgc.dcc.common.core.util.stream.Streams.stream;
 import static org.icgc.dcc.repository.core.model.Repositories.getTCGARepository;
 import static org.icgc.dcc.repository.core.model.RepositoryProjects.getProjectByDiseaseCode;
 
+import java.util.List;
 import java.util.regex.Pattern;
 
 import org.icgc.dcc.repository.core.RepositoryFileContext;
@@ -36,6 +37,7 @@ import org.icgc.dcc.repository.core.model.RepositoryFile.FileFormat;
 import org.icgc.dcc.repository.core.model.RepositoryFile.OtherIdentifiers;
 import org.icgc.dcc.repository.core.model.RepositoryFile.Program;
 import org.icgc.dcc.repository.tcga.model.TCGAArchiveClinicalFile;
+import org.icgc.dcc.repository.tcga.model.TCGAArchiveListEntry;
 import org.icgc.dcc.repository.tcga.reader.TCGAArchiveListReader;
 
 import com.google.common.collect.ImmutableList;
@@ -87,7 +89,8 @@ public class TCGAFileProcessor extends RepositoryFileProcessor {
     val entries = TCGAArchiveListReader.readEntries();
     log.info("Read {} archive list entries", formatCount(entries));
 
-    val clinicalFiles = ImmutableList.<RepositoryFile> builder();
+    val projectCodes = ImmutableList.<String> builder();
+    val clinicalEntries = ImmutableList.<TCGAArchiveListEntry> builder();
     for (val entry : entries) {
       val matcher = CLINICAL_ARCHIVE_NAME_PATTERN.matcher(entry.getArchiveName());
       val clinical = matcher.matches();
@@ -102,17 +105,25 @@ public class TCGAFileProcessor extends RepositoryFileProcessor {
         continue;
       }
 
-      val archiveClinicalFiles = processArchive(project.get().getProjectCode(), entry.getArchiveUrl());
+      projectCodes.add(project.get().getProjectCode());
+      clinicalEntries.add(entry);
+    }
+
+    // Fetching is concurrent but files are created here in entry order
+    val crawler = new TCGAArchiveCrawler(context.getReadConcurrency(), context.getTcgaArchiveCacheFile());
+    val archives = crawler.crawl(clinicalEntries.build());
 
-      clinicalFiles.addAll(archiveClinicalFiles);
+    val clinicalFiles = ImmutableList.<RepositoryFile> builder();
+    val archiveProjectCodes = projectCodes.build();
+    for (int i = 0; i < archives.size(); i++) {
+      clinicalFiles.addAll(processArchive(archiveProjectCodes.get(i), archives.get(i)));
     }
 
     return clinicalFiles.build();
   }
 
-  private Iterable<RepositoryFile> processArchive(String projectCode, String archiveUrl) {
-    val processor = new TCGAArchiveClinicalFileProcessor();
-    val archiveClinicalFiles = processor.process(archiveUrl);
+  private Iterable<RepositoryFile> processArchive(String projectCode,
+      List<TCGAArchiveClinicalFile> archiveClinicalFiles) {
     log.info("Processing {} archive clinical files", formatCount(archiveClinicalFiles));
 
     val clinicalFiles = ImmutableList.<RepositoryFile> builder();
@@ -21,15 +21,19 @@ import static com.google.common.collect.Iterables.skip;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.icgc.dcc.common.core.util.Splitters.TAB;
 import static org.icgc.dcc.common.core.util.URLs.getUrl;
+import static org.icgc.dcc.repository.core.http.RepositoryHttpClient.getClient;
+import static org.icgc.dcc.repository.core.model.RepositorySource.TCGA;
 
+import java.io.InputStreamReader;
 import java.net.URL;
 import java.util.List;
 
 import org.icgc.dcc.repository.tcga.model.TCGAArchiveListEntry;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.io.Resources;
+import com.google.common.io.CharStreams;
 
+import lombok.Cleanup;
 import lombok.SneakyThrows;
 import lombok.val;
 
@@ -58,7 +62,9 @@ public class TCGAArchiveListReader {
   private static Iterable<String> readLines() {
     // Skip header
     val headerLineCount = 1;
-    return skip(Resources.readLines(TCGA_ARCHIVE_LISTING, UTF_8), headerLineCount);
+    @Cleanup
+    val reader = new InputStreamReader(getClient(TCGA.getId()).open(TCGA_ARCHIVE_LISTING), UTF_8);
+    return skip(CharStreams.readLines(reader), headerLineCount);
   }
 
   private static List<String> parseFields(String line) {
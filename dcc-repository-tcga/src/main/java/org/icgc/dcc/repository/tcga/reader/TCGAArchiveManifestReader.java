@@ -17,16 +17,22 @@
  */
 package org.icgc.dcc.repository.tcga.reader;
 
-import static com.google.common.io.Resources.readLines;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.icgc.dcc.common.core.util.URLs.getUrl;
 import static org.icgc.dcc.common.core.util.stream.Collectors.toImmutableList;
+import static org.icgc.dcc.repository.core.http.RepositoryHttpClient.getClient;
+import static org.icgc.dcc.repository.core.model.RepositorySource.TCGA;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.util.stream.Stream;
 
+import org.icgc.dcc.repository.core.http.RepositoryHttpClient;
 import org.icgc.dcc.repository.tcga.model.TCGAArchiveManifestEntry;
 
+import com.google.common.io.CharStreams;
+
+import lombok.Cleanup;
 import lombok.SneakyThrows;
 import lombok.val;
 
@@ -37,6 +43,11 @@ public class TCGAArchiveManifestReader {
    */
   private static final String MANIFEST_FILE_NAME = "MANIFEST.txt";
 
+  /**
+   * Dependencies.
+   */
+  private static final RepositoryHttpClient HTTP_CLIENT = getClient(TCGA.getId());
+
   @SneakyThrows
   public static Iterable<TCGAArchiveManifestEntry> readEntries(String archiveUrl) {
     return readManifest(archiveUrl)
@@ -54,7 +65,9 @@ public class TCGAArchiveManifestReader {
 
   private static Stream<String> readManifest(String archiveUrl) throws IOException {
     val manifestUrl = getUrl(archiveUrl + "/" + MANIFEST_FILE_NAME);
-    return readLines(manifestUrl, UTF_8).stream();
+    @Cleanup
+    val reader = new InputStreamReader(HTTP_CLIENT.open(manifestUrl), UTF_8);
+    return CharStreams.readLines(reader).stream();
   }
 
   private static String[] parseFields(String line) {
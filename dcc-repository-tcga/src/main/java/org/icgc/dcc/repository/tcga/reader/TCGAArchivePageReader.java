@@ -18,6 +18,9 @@
 package org.icgc.dcc.repository.tcga.reader;
 
 import static com.google.common.base.Preconditions.checkState;
+import static org.icgc.dcc.common.core.util.URLs.getUrl;
+import static org.icgc.dcc.repository.core.http.RepositoryHttpClient.getClient;
+import static org.icgc.dcc.repository.core.model.RepositorySource.TCGA;
 
 import java.io.IOException;
 import java.time.Instant;
@@ -27,6 +30,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.regex.Pattern;
 
+import org.icgc.dcc.repository.core.http.RepositoryHttpClient;
 import org.icgc.dcc.repository.tcga.model.TCGAArchivePageEntry;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Node;
@@ -35,12 +39,18 @@ import org.jsoup.nodes.TextNode;
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Longs;
 
+import lombok.Cleanup;
 import lombok.SneakyThrows;
 import lombok.Value;
 import lombok.val;
 
 public class TCGAArchivePageReader {
 
+  /**
+   * Dependencies.
+   */
+  private static final RepositoryHttpClient HTTP_CLIENT = getClient(TCGA.getId());
+
   /**
    * Regexes.
    */
@@ -85,7 +95,9 @@ public class TCGAArchivePageReader {
   }
 
   private static List<Node> getNodes(String archiveUrl) throws IOException {
-    val document = Jsoup.connect(archiveUrl).get();
+    @Cleanup
+    val inputStream = HTTP_CLIENT.open(getUrl(archiveUrl));
+    val document = Jsoup.parse(inputStream, null, archiveUrl);
     val pre = document.select("pre").first();
 
     return pre.childNodes();
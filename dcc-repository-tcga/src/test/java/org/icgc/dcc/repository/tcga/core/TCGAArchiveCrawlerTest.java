@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.tcga.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+
+import org.icgc.dcc.repository.core.http.HttpStatusException;
+import org.icgc.dcc.repository.tcga.model.TCGAArchiveListEntry;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableList;
+
+import lombok.val;
+
+public class TCGAArchiveCrawlerTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  @Test
+  public void testLoadCompactsCache() throws IOException {
+    val cacheFile = tmp.newFile();
+    Files.write(cacheFile.toPath(), ImmutableList.of(
+        line("http://a 2016-01-01", "old.xml"),
+        line("http://b 2016-01-01", "stale.xml"),
+        line("http://a 2016-01-01", "new.xml"),
+        "{\"key\":\"http://c"), UTF_8);
+
+    // Every listed archive is cached, so nothing is fetched
+    val entry = new TCGAArchiveListEntry("a", "2016-01-01", "http://a");
+    val archives = new TCGAArchiveCrawler(1, cacheFile).crawl(ImmutableList.of(entry));
+
+    assertThat(archives).hasSize(1);
+    assertThat(archives.get(0)).extracting("fileName").containsExactly("new.xml");
+    assertThat(Files.readAllLines(cacheFile.toPath(), UTF_8)).containsExactly(line("http://a 2016-01-01", "new.xml"));
+  }
+
+  @Test
+  public void testIsRetryable() {
+    assertThat(TCGAArchiveCrawler.isRetryable(new IOException())).isTrue();
+    assertThat(TCGAArchiveCrawler.isRetryable(new UncheckedIOException(new IOException()))).isTrue();
+    assertThat(TCGAArchiveCrawler.isRetryable(new HttpStatusException("Unavailable", 503))).isTrue();
+    assertThat(TCGAArchiveCrawler.isRetryable(new HttpStatusException("Forbidden", 403))).isFalse();
+    assertThat(TCGAArchiveCrawler.isRetryable(new FileNotFoundException())).isFalse();
+    assertThat(TCGAArchiveCrawler.isRetryable(new IllegalStateException())).isFalse();
+  }
+
+  private static String line(String key, String fileName) {
+    return "{\"key\":\"" + key + "\",\"files\":[{\"donorId\":\"d\",\"fileName\":\"" + fileName
+        + "\",\"lastModified\":1,\"fileSize\":2,\"fileMd5\":\"m\",\"url\":\"http://a/" + fileName + "\"}]}";
+  }
+
+}